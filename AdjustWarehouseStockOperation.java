@@ -0,0 +1,9 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.StockMovement;
+import java.util.List;
+
+public interface AdjustWarehouseStockOperation {
+  // applies each movement atomically and fills in its resulting stock or rejection reason
+  List<StockMovement> apply(List<StockMovement> movements);
+}
@@ -0,0 +1,61 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.StockMovement;
+import com.fulfilment.application.monolith.warehouses.domain.ports.AdjustWarehouseStockOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.Comparator;
+import java.util.List;
+
+@ApplicationScoped
+public class AdjustWarehouseStockUseCase implements AdjustWarehouseStockOperation {
+
+  // movements accepted per request
+  static final int MAX_MOVEMENTS = 1000;
+
+  private final WarehouseStore warehouseStore;
+
+  public AdjustWarehouseStockUseCase(WarehouseStore warehouseStore) {
+    this.warehouseStore = warehouseStore;
+  }
+
+  @Override
+  public List<StockMovement> apply(List<StockMovement> movements) {
+    if (movements == null || movements.isEmpty() || movements.size() > MAX_MOVEMENTS) {
+      throw new IllegalArgumentException(
+          "Stock movements must contain between 1 and " + MAX_MOVEMENTS + " entries");
+    }
+
+    for (var movement : movements) {
+      if (movement == null) {
+        throw new IllegalArgumentException("Stock movement cannot be null");
+      }
+      movement.stock = null;
+      movement.error = null;
+      if (movement.businessUnitCode == null || movement.businessUnitCode.isBlank()) {
+        movement.error = "Business unit code is mandatory";
+      } else if (movement.delta == null) {
+        movement.error = "Stock delta is mandatory";
+      }
+    }
+
+    // touch rows in business unit code order so concurrent batches cannot deadlock each other
+    var valid =
+        movements.stream()
+            .filter(movement -> movement.error == null)
+            .sorted(Comparator.comparing(movement -> movement.businessUnitCode))
+            .toList();
+
+    for (var movement : valid) {
+      movement.stock = warehouseStore.adjustStock(movement.businessUnitCode, movement.delta);
+      if (movement.stock == null) {
+        movement.error =
+            warehouseStore.findByBusinessUnitCode(movement.businessUnitCode) == null
+                ? "Warehouse does not exist"
+                : "Stock must stay between 0 and warehouse capacity";
+      }
+    }
+
+    return movements;
+  }
+}
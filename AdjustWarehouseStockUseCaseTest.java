@@ -0,0 +1,76 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.StockMovement;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AdjustWarehouseStockUseCaseTest {
+
+	private InMemoryWarehouseStore warehouseStore;
+	private AdjustWarehouseStockUseCase useCase;
+
+	@BeforeEach
+	void setUp() {
+		warehouseStore = new InMemoryWarehouseStore();
+		useCase = new AdjustWarehouseStockUseCase(warehouseStore);
+
+		warehouseStore.create(warehouse("MWH.800", "ZWOLLE-001", 20, 5));
+		warehouseStore.create(warehouse("MWH.801", "TILBURG-001", 10, 10));
+	}
+
+	@Test
+	void shouldApplyEachMovementAndReturnResultingStock() {
+		var results = useCase.apply(List.of(movement("MWH.800", 7), movement("MWH.801", -4)));
+
+		assertEquals(12, results.get(0).stock);
+		assertEquals(6, results.get(1).stock);
+		assertNull(results.get(0).error);
+		assertEquals(12, warehouseStore.findByBusinessUnitCode("MWH.800").stock);
+	}
+
+	@Test
+	void shouldRejectMovementsLeavingStockOutOfBounds() {
+		var results = useCase.apply(
+				List.of(movement("MWH.800", -6), movement("MWH.801", 1), movement("MWH.800", 15)));
+
+		assertNull(results.get(0).stock);
+		assertEquals("Stock must stay between 0 and warehouse capacity", results.get(0).error);
+		assertNull(results.get(1).stock);
+		assertEquals(20, results.get(2).stock);
+	}
+
+	@Test
+	void shouldReportUnknownAndInvalidMovements() {
+		var results = useCase.apply(List.of(movement("MWH.999", 1), movement(" ", 1)));
+
+		assertEquals("Warehouse does not exist", results.get(0).error);
+		assertEquals("Business unit code is mandatory", results.get(1).error);
+	}
+
+	@Test
+	void shouldRejectEmptyBatch() {
+		assertThrows(IllegalArgumentException.class, () -> useCase.apply(List.of()));
+	}
+
+	private static StockMovement movement(String businessUnitCode, Integer delta) {
+		StockMovement movement = new StockMovement();
+		movement.businessUnitCode = businessUnitCode;
+		movement.delta = delta;
+		return movement;
+	}
+
+	private static Warehouse warehouse(String businessUnitCode, String location, Integer capacity, Integer stock) {
+		Warehouse warehouse = new Warehouse();
+		warehouse.businessUnitCode = businessUnitCode;
+		warehouse.location = location;
+		warehouse.capacity = capacity;
+		warehouse.stock = stock;
+		return warehouse;
+	}
+}
@@ -1,18 +1,28 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseChangePublisher;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import jakarta.enterprise.context.ApplicationScoped;
 import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @ApplicationScoped
 public class ArchiveWarehouseUseCase implements ArchiveWarehouseOperation {
 
   private final WarehouseStore warehouseStore;
+  private final WarehouseConflictRetry conflictRetry;
+  private final WarehouseChangePublisher changePublisher;
 
-  public ArchiveWarehouseUseCase(WarehouseStore warehouseStore) {
+  public ArchiveWarehouseUseCase(
+      WarehouseStore warehouseStore,
+      WarehouseConflictRetry conflictRetry,
+      WarehouseChangePublisher changePublisher) {
     this.warehouseStore = warehouseStore;
+    this.conflictRetry = conflictRetry;
+    this.changePublisher = changePublisher;
   }
 
   @Override
@@ -25,8 +35,24 @@ public class ArchiveWarehouseUseCase implements ArchiveWarehouseOperation {
       return;
     }
 
-    warehouse.archivedAt = LocalDateTime.now();
-
-    warehouseStore.update(warehouse);
+    var firstAttempt = new AtomicBoolean(true);
+    conflictRetry.run(
+        "archive",
+        () -> {
+          // retries re-read the warehouse, it may have been replaced or archived meanwhile
+          Warehouse current =
+              firstAttempt.getAndSet(false)
+                  ? warehouse
+                  : warehouseStore.findByBusinessUnitCode(warehouse.businessUnitCode);
+          if (current == null) {
+            return;
+          }
+
+          current.archivedAt = LocalDateTime.now();
+          warehouseStore.update(current);
+          warehouse.archivedAt = current.archivedAt;
+          changePublisher.publish(
+              WarehouseChange.create(current, WarehouseChange.Action.ARCHIVED));
+        });
   }
 }
@@ -3,9 +3,7 @@ package com.fulfilment.application.monolith.warehouses.domain.usecases;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
-import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
-import java.util.ArrayList;
-import java.util.List;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -17,7 +15,8 @@ public class ArchiveWarehouseUseCaseTest {
 	@BeforeEach
 	void setUp() {
 		warehouseStore = new InMemoryWarehouseStore();
-		useCase = new ArchiveWarehouseUseCase(warehouseStore);
+		useCase = new ArchiveWarehouseUseCase(
+				warehouseStore, new WarehouseConflictRetry(new SimpleMeterRegistry(), Runnable::run), change -> {});
 
 		Warehouse warehouse = warehouse("MWH.700", "ZWOLLE-001", 20, 5);
 		warehouseStore.create(warehouse);
@@ -40,59 +39,4 @@ public class ArchiveWarehouseUseCaseTest {
 		warehouse.stock = stock;
 		return warehouse;
 	}
-
-	private static class InMemoryWarehouseStore implements WarehouseStore {
-		private final List<Warehouse> warehouses = new ArrayList<>();
-
-		@Override
-		public List<Warehouse> getAll() {
-			return new ArrayList<>(warehouses);
-		}
-
-		@Override
-		public void create(Warehouse warehouse) {
-			warehouses.add(copy(warehouse));
-		}
-
-		@Override
-		public void update(Warehouse warehouse) {
-			Warehouse existing = warehouses.stream()
-					.filter(current -> current.businessUnitCode.equals(warehouse.businessUnitCode))
-					.findFirst()
-					.orElse(null);
-			if (existing == null) {
-				return;
-			}
-			existing.archivedAt = warehouse.archivedAt;
-			existing.capacity = warehouse.capacity;
-			existing.stock = warehouse.stock;
-			existing.location = warehouse.location;
-			existing.createdAt = warehouse.createdAt;
-		}
-
-		@Override
-		public void remove(Warehouse warehouse) {
-			warehouses.removeIf(current -> current.businessUnitCode.equals(warehouse.businessUnitCode));
-		}
-
-		@Override
-		public Warehouse findByBusinessUnitCode(String buCode) {
-			return warehouses.stream()
-					.filter(current -> current.archivedAt == null)
-					.filter(current -> current.businessUnitCode.equals(buCode))
-					.findFirst()
-					.orElse(null);
-		}
-
-		private static Warehouse copy(Warehouse warehouse) {
-			Warehouse copy = new Warehouse();
-			copy.businessUnitCode = warehouse.businessUnitCode;
-			copy.location = warehouse.location;
-			copy.capacity = warehouse.capacity;
-			copy.stock = warehouse.stock;
-			copy.createdAt = warehouse.createdAt;
-			copy.archivedAt = warehouse.archivedAt;
-			return copy;
-		}
-	}
 }
@@ -0,0 +1,190 @@
+package com.fulfilment.application.monolith.bulk;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.ws.rs.WebApplicationException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import org.hibernate.StaleStateException;
+import org.hibernate.exception.ConstraintViolationException;
+
+// Drives a bulk upsert by name. The payload, a JSON array or NDJSON, is streamed and written in
+// chunks, each in its own transaction, so a chunk that fails leaves the ones before it committed;
+// upserts are idempotent and the payload can simply be sent again. A chunk that loses a race on
+// the unique name is written again row by row, so only a row that keeps conflicting is rejected.
+public class ChunkedUpsert<T> {
+
+  @FunctionalInterface
+  public interface ChunkWriter<T> {
+    // runs in the transaction of the chunk, which maps payload positions to valid elements
+    List<UpsertResult> write(SortedMap<Integer, T> chunk);
+  }
+
+  private final ObjectMapper objectMapper;
+  private final Class<T> type;
+  private final String label;
+  private final Function<T, String> name;
+  private final int maxNameLength;
+  private final int chunkSize;
+  private final ChunkWriter<T> writer;
+
+  // label names the element in messages, e.g. "Store"
+  public ChunkedUpsert(
+      ObjectMapper objectMapper,
+      Class<T> type,
+      String label,
+      Function<T, String> name,
+      int maxNameLength,
+      int chunkSize,
+      ChunkWriter<T> writer) {
+    this.objectMapper = objectMapper;
+    this.type = type;
+    this.label = label;
+    this.name = name;
+    this.maxNameLength = maxNameLength;
+    this.chunkSize = chunkSize;
+    this.writer = writer;
+  }
+
+  // a malformed element ends the upload: it is rejected and the elements before it are written
+  public List<UpsertResult> fromArray(InputStream body) throws IOException {
+    var results = new ArrayList<UpsertResult>();
+    var chunk = new TreeMap<Integer, T>();
+
+    int position = 0;
+    try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new WebApplicationException("Expected a JSON array of " + plural(), 400);
+      }
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        position++;
+        add(position, parser.readValueAs(type), chunk, results);
+      }
+    } catch (JsonProcessingException ex) {
+      if (position == 0) {
+        throw new WebApplicationException("Expected a JSON array of " + plural(), 400);
+      }
+      results.add(
+          UpsertResult.rejected(
+              position, null, "Malformed " + singular() + ", the rest of the array was not read"));
+    }
+
+    return finish(chunk, results);
+  }
+
+  public List<UpsertResult> fromNdjson(InputStream body) throws IOException {
+    var results = new ArrayList<UpsertResult>();
+    var chunk = new TreeMap<Integer, T>();
+
+    try (var reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+      int lineNumber = 0;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.isBlank()) {
+          continue;
+        }
+
+        try {
+          add(lineNumber, objectMapper.readValue(line, type), chunk, results);
+        } catch (JsonProcessingException ex) {
+          results.add(UpsertResult.rejected(lineNumber, null, "Malformed " + singular() + " line"));
+        }
+      }
+    }
+
+    return finish(chunk, results);
+  }
+
+  private void add(int line, T element, SortedMap<Integer, T> chunk, List<UpsertResult> results) {
+    String elementName = element == null ? null : name.apply(element);
+    if (elementName == null || elementName.isBlank()) {
+      results.add(UpsertResult.rejected(line, elementName, label + " Name was not set"));
+      return;
+    }
+    if (elementName.length() > maxNameLength) {
+      results.add(
+          UpsertResult.rejected(
+              line, elementName, label + " Name is longer than " + maxNameLength + " characters"));
+      return;
+    }
+
+    chunk.put(line, element);
+    if (chunk.size() == chunkSize) {
+      results.addAll(write(chunk));
+      chunk.clear();
+    }
+  }
+
+  private List<UpsertResult> finish(SortedMap<Integer, T> chunk, List<UpsertResult> results) {
+    if (!chunk.isEmpty()) {
+      results.addAll(write(chunk));
+    }
+    results.sort(Comparator.comparingInt(result -> result.line));
+    return results;
+  }
+
+  private List<UpsertResult> write(SortedMap<Integer, T> chunk) {
+    try {
+      return QuarkusTransaction.requiringNew().call(() -> writer.write(chunk));
+    } catch (RuntimeException ex) {
+      if (!isConflict(ex)) {
+        throw ex;
+      }
+    }
+
+    // another request inserted one of the names or updated one of the rows first; written again,
+    // the row is read afresh and updated, and only a row that conflicts once more is rejected
+    var results = new ArrayList<UpsertResult>(chunk.size());
+    for (var entry : chunk.entrySet()) {
+      var row = new TreeMap<Integer, T>();
+      row.put(entry.getKey(), entry.getValue());
+      try {
+        results.addAll(QuarkusTransaction.requiringNew().call(() -> writer.write(row)));
+      } catch (RuntimeException ex) {
+        if (!isConflict(ex)) {
+          throw ex;
+        }
+        results.add(
+            UpsertResult.rejected(
+                entry.getKey(),
+                name.apply(entry.getValue()),
+                label + " Name was written concurrently"));
+      }
+    }
+    return results;
+  }
+
+  private static boolean isConflict(Throwable failure) {
+    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ConstraintViolationException
+          || cause instanceof OptimisticLockException
+          || cause instanceof StaleStateException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private String singular() {
+    return label.toLowerCase(Locale.ROOT);
+  }
+
+  private String plural() {
+    return singular() + "s";
+  }
+}
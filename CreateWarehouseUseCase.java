@@ -1,8 +1,10 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
 import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseChangePublisher;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import jakarta.enterprise.context.ApplicationScoped;
 import java.time.LocalDateTime;
@@ -12,10 +14,15 @@ public class CreateWarehouseUseCase implements CreateWarehouseOperation {
 
   private final WarehouseStore warehouseStore;
   private final LocationResolver locationResolver;
+  private final WarehouseChangePublisher changePublisher;
 
-  public CreateWarehouseUseCase(WarehouseStore warehouseStore, LocationResolver locationResolver) {
+  public CreateWarehouseUseCase(
+      WarehouseStore warehouseStore,
+      LocationResolver locationResolver,
+      WarehouseChangePublisher changePublisher) {
     this.warehouseStore = warehouseStore;
     this.locationResolver = locationResolver;
+    this.changePublisher = changePublisher;
   }
 
   @Override
@@ -35,19 +42,14 @@ public class CreateWarehouseUseCase implements CreateWarehouseOperation {
       throw new IllegalArgumentException("Warehouse stock cannot exceed capacity");
     }
 
-    var activeWarehousesAtLocation =
-        warehouseStore.getAll().stream()
-            .filter(current -> current.archivedAt == null)
-            .filter(current -> location.identification.equals(current.location))
-            .toList();
+    warehouseStore.lockLocation(location.identification);
+    var occupancy = warehouseStore.getLocationOccupancy(location.identification, null);
 
-    if (activeWarehousesAtLocation.size() >= location.maxNumberOfWarehouses) {
+    if (occupancy.activeWarehouses >= location.maxNumberOfWarehouses) {
       throw new IllegalArgumentException("Maximum number of warehouses reached for location");
     }
 
-    int currentLocationCapacity =
-        activeWarehousesAtLocation.stream().mapToInt(current -> current.capacity).sum();
-    int futureCapacity = currentLocationCapacity + warehouse.capacity;
+    long futureCapacity = occupancy.totalCapacity + warehouse.capacity;
     if (futureCapacity > location.maxCapacity) {
       throw new IllegalArgumentException("Location maximum capacity exceeded");
     }
@@ -57,9 +59,10 @@ public class CreateWarehouseUseCase implements CreateWarehouseOperation {
 
     // if all went well, create the warehouse
     warehouseStore.create(warehouse);
+    changePublisher.publish(WarehouseChange.create(warehouse, WarehouseChange.Action.CREATED));
   }
 
-  private static void validateMandatoryFields(Warehouse warehouse) {
+  static void validateMandatoryFields(Warehouse warehouse) {
     if (warehouse == null
         || warehouse.businessUnitCode == null
         || warehouse.businessUnitCode.isBlank()
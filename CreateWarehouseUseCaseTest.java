@@ -8,8 +8,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
-import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,7 +21,7 @@ public class CreateWarehouseUseCaseTest {
 	@BeforeEach
 	void setUp() {
 		warehouseStore = new InMemoryWarehouseStore();
-		useCase = new CreateWarehouseUseCase(warehouseStore, new FixedLocationResolver());
+		useCase = new CreateWarehouseUseCase(warehouseStore, new FixedLocationResolver(), change -> {});
 	}
 
 	@Test
@@ -61,6 +60,37 @@ public class CreateWarehouseUseCaseTest {
 		assertThrows(IllegalArgumentException.class, () -> useCase.create(warehouse));
 	}
 
+	@Test
+	void shouldRejectWhenLocationMaximumNumberOfWarehousesIsReached() {
+		warehouseStore.create(warehouse("MWH.510", "ZWOLLE-001", 10, 1));
+		warehouseStore.create(warehouse("MWH.511", "ZWOLLE-001", 10, 1));
+
+		Warehouse warehouse = warehouse("MWH.512", "ZWOLLE-001", 10, 1);
+
+		assertThrows(IllegalArgumentException.class, () -> useCase.create(warehouse));
+	}
+
+	@Test
+	void shouldRejectWhenLocationMaximumCapacityIsExceeded() {
+		warehouseStore.create(warehouse("MWH.520", "ZWOLLE-001", 30, 1));
+
+		Warehouse warehouse = warehouse("MWH.521", "ZWOLLE-001", 11, 1);
+
+		assertThrows(IllegalArgumentException.class, () -> useCase.create(warehouse));
+	}
+
+	@Test
+	void shouldValidateLocationWithoutLoadingArchivedHistory() {
+		for (int i = 0; i < 10_000; i++) {
+			Warehouse archived = warehouse("MWH.H" + i, "ZWOLLE-001", 40, 0);
+			archived.archivedAt = LocalDateTime.now().minusDays(1);
+			warehouseStore.create(archived);
+		}
+
+		assertDoesNotThrow(() -> useCase.create(warehouse("MWH.530", "ZWOLLE-001", 40, 0)));
+		assertEquals(0, warehouseStore.getAllCalls);
+	}
+
 	private static Warehouse warehouse(String businessUnitCode, String location, Integer capacity, Integer stock) {
 		Warehouse warehouse = new Warehouse();
 		warehouse.businessUnitCode = businessUnitCode;
@@ -82,57 +112,10 @@ public class CreateWarehouseUseCaseTest {
 			}
 			return null;
 		}
-	}
-
-	private static class InMemoryWarehouseStore implements WarehouseStore {
-		private final List<Warehouse> warehouses = new ArrayList<>();
-
-		@Override
-		public List<Warehouse> getAll() {
-			return new ArrayList<>(warehouses);
-		}
 
 		@Override
-		public void create(Warehouse warehouse) {
-			warehouses.add(copy(warehouse));
-		}
-
-		@Override
-		public void update(Warehouse warehouse) {
-			Warehouse existing = findByBusinessUnitCode(warehouse.businessUnitCode);
-			if (existing == null) {
-				return;
-			}
-			existing.location = warehouse.location;
-			existing.capacity = warehouse.capacity;
-			existing.stock = warehouse.stock;
-			existing.createdAt = warehouse.createdAt;
-			existing.archivedAt = warehouse.archivedAt;
-		}
-
-		@Override
-		public void remove(Warehouse warehouse) {
-			warehouses.removeIf(current -> current.businessUnitCode.equals(warehouse.businessUnitCode));
-		}
-
-		@Override
-		public Warehouse findByBusinessUnitCode(String buCode) {
-			return warehouses.stream()
-					.filter(current -> current.archivedAt == null)
-					.filter(current -> current.businessUnitCode.equals(buCode))
-					.findFirst()
-					.orElse(null);
-		}
-
-		private static Warehouse copy(Warehouse warehouse) {
-			Warehouse copy = new Warehouse();
-			copy.businessUnitCode = warehouse.businessUnitCode;
-			copy.location = warehouse.location;
-			copy.capacity = warehouse.capacity;
-			copy.stock = warehouse.stock;
-			copy.createdAt = warehouse.createdAt;
-			copy.archivedAt = warehouse.archivedAt;
-			return copy;
+		public List<Location> getAll() {
+			return List.of(resolveByIdentifier("ZWOLLE-001"), resolveByIdentifier("AMSTERDAM-001"));
 		}
 	}
 }
@@ -1,20 +1,26 @@
 package com.fulfilment.application.monolith.warehouses.adapters.database;
 
-import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 
+// holds active warehouses only, archived versions are moved to DbWarehouseHistory
 @Entity
-@Table(name = "warehouse")
+@Table(
+    name = "warehouse",
+    indexes = {@Index(name = "ix_warehouse_location_id", columnList = "location, id")})
 @Cacheable
 public class DbWarehouse {
 
   @Id @GeneratedValue public Long id;
 
+  @Column(unique = true)
   public String businessUnitCode;
 
   public String location;
@@ -25,18 +31,7 @@ public class DbWarehouse {
 
   public LocalDateTime createdAt;
 
-  public LocalDateTime archivedAt;
+  @Version public Long version;
 
   public DbWarehouse() {}
-
-  public Warehouse toWarehouse() {
-    var warehouse = new Warehouse();
-    warehouse.businessUnitCode = this.businessUnitCode;
-    warehouse.location = this.location;
-    warehouse.capacity = this.capacity;
-    warehouse.stock = this.stock;
-    warehouse.createdAt = this.createdAt;
-    warehouse.archivedAt = this.archivedAt;
-    return warehouse;
-  }
 }
@@ -0,0 +1,34 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+    name = "warehouse_history",
+    indexes = {
+      @Index(name = "ix_warehouse_history_bu_code", columnList = "businessUnitCode, archivedAt"),
+      @Index(name = "ix_warehouse_history_location_id", columnList = "location, id")
+    })
+public class DbWarehouseHistory {
+
+  @Id @GeneratedValue public Long id;
+
+  public String businessUnitCode;
+
+  public String location;
+
+  public Integer capacity;
+
+  public Integer stock;
+
+  public LocalDateTime createdAt;
+
+  public LocalDateTime archivedAt;
+
+  public DbWarehouseHistory() {}
+}
@@ -0,0 +1,10 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseImportResult;
+import java.util.List;
+import java.util.SortedMap;
+
+public interface ImportWarehousesOperation {
+  List<WarehouseImportResult> importBatch(SortedMap<Integer, Warehouse> warehousesByLine);
+}
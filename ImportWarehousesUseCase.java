@@ -0,0 +1,117 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseImportResult;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ImportWarehousesOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseChangePublisher;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeSet;
+
+@ApplicationScoped
+public class ImportWarehousesUseCase implements ImportWarehousesOperation {
+
+  private final WarehouseStore warehouseStore;
+  private final LocationResolver locationResolver;
+  private final WarehouseChangePublisher changePublisher;
+
+  public ImportWarehousesUseCase(
+      WarehouseStore warehouseStore,
+      LocationResolver locationResolver,
+      WarehouseChangePublisher changePublisher) {
+    this.warehouseStore = warehouseStore;
+    this.locationResolver = locationResolver;
+    this.changePublisher = changePublisher;
+  }
+
+  @Override
+  public List<WarehouseImportResult> importBatch(SortedMap<Integer, Warehouse> warehousesByLine) {
+    var results = new ArrayList<WarehouseImportResult>();
+    var candidates = new LinkedHashMap<Integer, Warehouse>();
+    var locations = new HashMap<String, Location>();
+
+    for (var entry : warehousesByLine.entrySet()) {
+      var warehouse = entry.getValue();
+      try {
+        CreateWarehouseUseCase.validateMandatoryFields(warehouse);
+
+        var location = locationResolver.resolveByIdentifier(warehouse.location);
+        if (location == null) {
+          throw new IllegalArgumentException("Invalid warehouse location");
+        }
+
+        if (warehouse.stock > warehouse.capacity) {
+          throw new IllegalArgumentException("Warehouse stock cannot exceed capacity");
+        }
+
+        locations.put(location.identification, location);
+        candidates.put(entry.getKey(), warehouse);
+      } catch (IllegalArgumentException ex) {
+        results.add(
+            WarehouseImportResult.rejected(
+                entry.getKey(), warehouse == null ? null : warehouse.businessUnitCode, ex.getMessage()));
+      }
+    }
+
+    var knownCodes =
+        new HashSet<>(
+            warehouseStore.findActiveBusinessUnitCodes(
+                candidates.values().stream().map(warehouse -> warehouse.businessUnitCode).toList()));
+
+    // lock in a stable order so concurrent imports touching the same locations cannot deadlock
+    new TreeSet<>(locations.keySet()).forEach(warehouseStore::lockLocation);
+
+    Map<String, LocationOccupancy> occupancies = new HashMap<>();
+    for (var entry : candidates.entrySet()) {
+      var warehouse = entry.getValue();
+      var location = locations.get(warehouse.location);
+      var occupancy =
+          occupancies.computeIfAbsent(
+              location.identification, id -> warehouseStore.getLocationOccupancy(id, null));
+
+      String error = null;
+      if (knownCodes.contains(warehouse.businessUnitCode)) {
+        error = "Business unit code already exists";
+      } else if (occupancy.activeWarehouses >= location.maxNumberOfWarehouses) {
+        error = "Maximum number of warehouses reached for location";
+      } else if (occupancy.totalCapacity + warehouse.capacity > location.maxCapacity) {
+        error = "Location maximum capacity exceeded";
+      }
+
+      if (error != null) {
+        results.add(WarehouseImportResult.rejected(entry.getKey(), warehouse.businessUnitCode, error));
+        continue;
+      }
+
+      warehouse.createdAt = LocalDateTime.now();
+      warehouse.archivedAt = null;
+      warehouseStore.create(warehouse);
+      changePublisher.publish(WarehouseChange.create(warehouse, WarehouseChange.Action.CREATED));
+
+      knownCodes.add(warehouse.businessUnitCode);
+      occupancies.put(
+          location.identification,
+          new LocationOccupancy(
+              occupancy.activeWarehouses + 1,
+              occupancy.totalCapacity + warehouse.capacity,
+              occupancy.totalStock));
+      results.add(WarehouseImportResult.created(entry.getKey(), warehouse.businessUnitCode));
+    }
+
+    results.sort(Comparator.comparingInt(result -> result.line));
+    return results;
+  }
+}
@@ -0,0 +1,106 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseImportResult;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import java.util.List;
+import java.util.TreeMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ImportWarehousesUseCaseTest {
+
+	private InMemoryWarehouseStore warehouseStore;
+	private ImportWarehousesUseCase useCase;
+
+	@BeforeEach
+	void setUp() {
+		warehouseStore = new InMemoryWarehouseStore();
+		useCase = new ImportWarehousesUseCase(warehouseStore, new FixedLocationResolver(), change -> {});
+
+		warehouseStore.create(warehouse("MWH.800", "ZWOLLE-001", 10, 1));
+	}
+
+	@Test
+	void shouldCreateValidLinesAndReportRejectedOnes() {
+		var batch = new TreeMap<Integer, Warehouse>();
+		batch.put(1, warehouse("MWH.801", "AMSTERDAM-001", 20, 5));
+		batch.put(2, warehouse("MWH.802", "UNKNOWN", 20, 5));
+		batch.put(4, warehouse("MWH.803", "AMSTERDAM-001", 10, 11));
+
+		List<WarehouseImportResult> results = useCase.importBatch(batch);
+
+		assertEquals(3, results.size());
+		assertTrue(results.get(0).created);
+		assertFalse(results.get(1).created);
+		assertEquals(2, results.get(1).line);
+		assertFalse(results.get(2).created);
+		assertEquals(4, results.get(2).line);
+		assertNotNull(warehouseStore.findByBusinessUnitCode("MWH.801"));
+	}
+
+	@Test
+	void shouldApplyLocationLimitsAcrossTheBatch() {
+		// ZWOLLE-001 allows 2 warehouses and 40 capacity, one of each is already taken
+		var batch = new TreeMap<Integer, Warehouse>();
+		batch.put(1, warehouse("MWH.811", "ZWOLLE-001", 20, 0));
+		batch.put(2, warehouse("MWH.812", "ZWOLLE-001", 5, 0));
+		batch.put(3, warehouse("MWH.813", "AMSTERDAM-001", 90, 0));
+		batch.put(4, warehouse("MWH.814", "AMSTERDAM-001", 20, 0));
+
+		List<WarehouseImportResult> results = useCase.importBatch(batch);
+
+		assertTrue(results.get(0).created);
+		assertEquals("Maximum number of warehouses reached for location", results.get(1).error);
+		assertTrue(results.get(2).created);
+		assertEquals("Location maximum capacity exceeded", results.get(3).error);
+	}
+
+	@Test
+	void shouldRejectExistingAndDuplicatedBusinessUnitCodes() {
+		var batch = new TreeMap<Integer, Warehouse>();
+		batch.put(1, warehouse("MWH.800", "AMSTERDAM-001", 10, 0));
+		batch.put(2, warehouse("MWH.821", "AMSTERDAM-001", 10, 0));
+		batch.put(3, warehouse("MWH.821", "AMSTERDAM-001", 10, 0));
+
+		List<WarehouseImportResult> results = useCase.importBatch(batch);
+
+		assertEquals("Business unit code already exists", results.get(0).error);
+		assertTrue(results.get(1).created);
+		assertEquals("Business unit code already exists", results.get(2).error);
+	}
+
+	private static Warehouse warehouse(String businessUnitCode, String location, Integer capacity, Integer stock) {
+		Warehouse warehouse = new Warehouse();
+		warehouse.businessUnitCode = businessUnitCode;
+		warehouse.location = location;
+		warehouse.capacity = capacity;
+		warehouse.stock = stock;
+		return warehouse;
+	}
+
+	private static class FixedLocationResolver implements LocationResolver {
+
+		@Override
+		public Location resolveByIdentifier(String identifier) {
+			if ("ZWOLLE-001".equals(identifier)) {
+				return new Location("ZWOLLE-001", 2, 40);
+			}
+			if ("AMSTERDAM-001".equals(identifier)) {
+				return new Location("AMSTERDAM-001", 5, 100);
+			}
+			return null;
+		}
+
+		@Override
+		public List<Location> getAll() {
+			return List.of(resolveByIdentifier("ZWOLLE-001"), resolveByIdentifier("AMSTERDAM-001"));
+		}
+	}
+}
@@ -0,0 +1,177 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseConflictException;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Warehouse store of the use case tests. Like the database adapter it hands out copies, so a write
+// that fails half way leaves the stored warehouses untouched.
+class InMemoryWarehouseStore implements WarehouseStore {
+
+	private final List<Warehouse> warehouses = new ArrayList<>();
+	private long nextId = 1;
+
+	// number of getAll() calls, to check that use cases do not load every warehouse
+	int getAllCalls;
+
+	// number of upcoming updates that fail as if the warehouse was modified concurrently
+	int conflictsToRaise;
+
+	@Override
+	public List<Warehouse> getAll() {
+		getAllCalls++;
+		return warehouses.stream().map(InMemoryWarehouseStore::copy).toList();
+	}
+
+	@Override
+	public void create(Warehouse warehouse) {
+		warehouse.id = nextId++;
+		warehouse.version = 0L;
+		warehouses.add(copy(warehouse));
+	}
+
+	@Override
+	public void update(Warehouse warehouse) {
+		if (conflictsToRaise > 0) {
+			conflictsToRaise--;
+			throw new WarehouseConflictException(warehouse.businessUnitCode);
+		}
+		Warehouse existing = warehouse.id == null
+				? findActive(warehouse.businessUnitCode)
+				: findById(warehouse.id);
+		if (existing == null) {
+			return;
+		}
+		existing.location = warehouse.location;
+		existing.capacity = warehouse.capacity;
+		existing.stock = warehouse.stock;
+		existing.createdAt = warehouse.createdAt;
+		existing.archivedAt = warehouse.archivedAt;
+		existing.version++;
+	}
+
+	@Override
+	public void remove(Warehouse warehouse) {
+		warehouses.removeIf(current -> current.businessUnitCode.equals(warehouse.businessUnitCode));
+	}
+
+	@Override
+	public Warehouse findByBusinessUnitCode(String buCode) {
+		Warehouse active = findActive(buCode);
+		return active == null ? null : copy(active);
+	}
+
+	@Override
+	public Set<String> findActiveBusinessUnitCodes(Collection<String> buCodes) {
+		return active()
+				.map(current -> current.businessUnitCode)
+				.filter(buCodes::contains)
+				.collect(Collectors.toSet());
+	}
+
+	@Override
+	public List<Warehouse> findPage(String location, boolean archived, Long afterId, int limit) {
+		return warehouses.stream()
+				.filter(current -> (current.archivedAt != null) == archived)
+				.filter(current -> location == null || current.location.equals(location))
+				.filter(current -> afterId == null || current.id > afterId)
+				.sorted(Comparator.comparing(current -> current.id))
+				.limit(limit)
+				.map(InMemoryWarehouseStore::copy)
+				.toList();
+	}
+
+	@Override
+	public List<Warehouse> findHistoryByBusinessUnitCode(String buCode) {
+		return warehouses.stream()
+				.filter(current -> current.archivedAt != null)
+				.filter(current -> current.businessUnitCode.equals(buCode))
+				.sorted(Comparator.comparing((Warehouse current) -> current.archivedAt).reversed())
+				.map(InMemoryWarehouseStore::copy)
+				.toList();
+	}
+
+	@Override
+	public LocationOccupancy getLocationOccupancy(String location, String excludedBusinessUnitCode) {
+		return occupancy(
+				active()
+						.filter(current -> current.location.equals(location))
+						.filter(current -> !current.businessUnitCode.equals(excludedBusinessUnitCode))
+						.toList());
+	}
+
+	@Override
+	public Map<String, LocationOccupancy> getOccupancyByLocation() {
+		var occupancies = new HashMap<String, LocationOccupancy>();
+		active()
+				.collect(Collectors.groupingBy(current -> current.location))
+				.forEach((location, inLocation) -> occupancies.put(location, occupancy(inLocation)));
+		return occupancies;
+	}
+
+	@Override
+	public void lockLocation(String location) {}
+
+	@Override
+	public Integer adjustStock(String buCode, int delta) {
+		Warehouse warehouse = findActive(buCode);
+		if (warehouse == null) {
+			return null;
+		}
+
+		int stock = warehouse.stock + delta;
+		if (stock < 0 || stock > warehouse.capacity) {
+			return null;
+		}
+		warehouse.stock = stock;
+		return stock;
+	}
+
+	private Stream<Warehouse> active() {
+		return warehouses.stream().filter(current -> current.archivedAt == null);
+	}
+
+	private Warehouse findActive(String buCode) {
+		return active()
+				.filter(current -> current.businessUnitCode.equals(buCode))
+				.findFirst()
+				.orElse(null);
+	}
+
+	private Warehouse findById(Long id) {
+		return warehouses.stream()
+				.filter(current -> current.id.equals(id))
+				.findFirst()
+				.orElse(null);
+	}
+
+	private static LocationOccupancy occupancy(List<Warehouse> inLocation) {
+		return new LocationOccupancy(
+				inLocation.size(),
+				inLocation.stream().mapToLong(current -> current.capacity).sum(),
+				inLocation.stream().mapToLong(current -> current.stock).sum());
+	}
+
+	private static Warehouse copy(Warehouse warehouse) {
+		Warehouse copy = new Warehouse();
+		copy.id = warehouse.id;
+		copy.businessUnitCode = warehouse.businessUnitCode;
+		copy.location = warehouse.location;
+		copy.capacity = warehouse.capacity;
+		copy.stock = warehouse.stock;
+		copy.createdAt = warehouse.createdAt;
+		copy.archivedAt = warehouse.archivedAt;
+		copy.version = warehouse.version;
+		return copy;
+	}
+}
@@ -0,0 +1,250 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationHeadroom;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// In-memory occupancy per location, used to answer capacity-planning queries without touching the
+// database. The locations not cached yet are loaded together by one grouped query on first use,
+// and after every invalidation, then kept current by the deltas of committed warehouse writes. It
+// is a planning aid only: creation still validates against the database.
+@ApplicationScoped
+public class LocationCapacityIndex {
+
+  private static final Object PENDING_CHANGES = new Object();
+  private static final LocationOccupancy EMPTY = new LocationOccupancy(0, 0, 0);
+
+  private final LocationResolver locationResolver;
+  private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+  // occupancies are never changed in place: deltas replace them through compute, so concurrent
+  // deltas are never lost
+  private final Map<String, LocationOccupancy> occupancies = new ConcurrentHashMap<>();
+
+  // Guards loads against deltas. A load reads the committed state, which may already include a
+  // transaction whose delta is about to be applied. Each location therefore counts the open
+  // transactions writing to it and the deltas applied to it. A load is only cached if neither
+  // moved while it ran; otherwise it answers this query alone, and the next query loads again.
+  private final Map<String, LoadGuard> guards = new ConcurrentHashMap<>();
+  private final AtomicLong invalidations = new AtomicLong();
+
+  @Inject
+  public LocationCapacityIndex(
+      LocationResolver locationResolver,
+      TransactionSynchronizationRegistry transactionSynchronizationRegistry) {
+    this.locationResolver = locationResolver;
+    this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+  }
+
+  // Locations that can host a warehouse of the given capacity, most remaining capacity first.
+  // loadAll returns the occupancy of every location with an active warehouse; loader loads a
+  // single location, for those a concurrent write kept loadAll's result out of the cache.
+  public List<LocationHeadroom> findHostingLocations(
+      int capacity,
+      Supplier<Map<String, LocationOccupancy>> loadAll,
+      Function<String, LocationOccupancy> loader) {
+    var locations = locationResolver.getAll();
+    seed(locations, loadAll);
+
+    var hosting = new ArrayList<LocationHeadroom>();
+    for (var location : locations) {
+      var occupancy = occupancy(location.identification, loader);
+      long freeSlots = location.maxNumberOfWarehouses - occupancy.activeWarehouses;
+      long freeCapacity = location.maxCapacity - occupancy.totalCapacity;
+      if (freeSlots > 0 && freeCapacity >= capacity) {
+        hosting.add(
+            new LocationHeadroom(
+                location.identification, freeSlots, freeCapacity, freeCapacity - capacity));
+      }
+    }
+
+    hosting.sort(
+        Comparator.comparingLong((LocationHeadroom headroom) -> headroom.remainingCapacity)
+            .thenComparingLong(headroom -> headroom.freeWarehouseSlots)
+            .reversed()
+            .thenComparing(headroom -> headroom.location));
+    return hosting;
+  }
+
+  public void recordCreated(Warehouse warehouse) {
+    record(warehouse.location, 1, warehouse.capacity);
+  }
+
+  public void recordArchived(Warehouse warehouse) {
+    record(warehouse.location, -1, -warehouse.capacity);
+  }
+
+  // the previous location and capacity of an updated warehouse are unknown, reload everything
+  public void invalidateAll() {
+    if (transactionSynchronizationRegistry.getTransactionKey() == null) {
+      clear();
+      return;
+    }
+    pendingChanges().reloadAll = true;
+  }
+
+  // one grouped load for every location not cached, guarded per location like a single load; a
+  // location without any active warehouse is absent from the result and empty
+  private void seed(
+      Collection<Location> locations, Supplier<Map<String, LocationOccupancy>> loadAll) {
+    var missing = new HashMap<String, Long>();
+    for (var location : locations) {
+      if (!occupancies.containsKey(location.identification)) {
+        missing.put(location.identification, guard(location.identification).applied.get());
+      }
+    }
+    if (missing.isEmpty()) {
+      return;
+    }
+
+    long invalidation = invalidations.get();
+    var loaded = loadAll.get();
+    missing.forEach(
+        (location, applied) -> {
+          var guard = guard(location);
+          occupancies.compute(
+              location,
+              (id, current) -> {
+                if (current != null) {
+                  return current;
+                }
+                return unchanged(guard, invalidation, applied)
+                    ? loaded.getOrDefault(location, EMPTY)
+                    : null;
+              });
+        });
+  }
+
+  // the loader runs outside the map, so a slow query blocks neither this location nor others
+  private LocationOccupancy occupancy(
+      String location, Function<String, LocationOccupancy> loader) {
+    var occupancy = occupancies.get(location);
+    if (occupancy != null) {
+      return occupancy;
+    }
+
+    var guard = guard(location);
+    long invalidation = invalidations.get();
+    long applied = guard.applied.get();
+    var loaded = loader.apply(location);
+
+    // deltas are applied under the same key: one that lands after this check finds the loaded
+    // occupancy in place, one that landed before it moved the counters
+    var cached =
+        occupancies.compute(
+            location,
+            (id, current) -> {
+              if (current != null) {
+                return current;
+              }
+              return unchanged(guard, invalidation, applied) ? loaded : null;
+            });
+    return cached == null ? loaded : cached;
+  }
+
+  // no invalidation, delta or open writer since the load started
+  private boolean unchanged(LoadGuard guard, long invalidation, long applied) {
+    return invalidations.get() == invalidation
+        && guard.applied.get() == applied
+        && guard.writers.get() == 0;
+  }
+
+  private void record(String location, long warehouses, long capacity) {
+    if (transactionSynchronizationRegistry.getTransactionKey() == null) {
+      // already committed, a load running right now may or may not have seen it: reload
+      guard(location).applied.incrementAndGet();
+      occupancies.remove(location);
+      return;
+    }
+
+    var deltas = pendingChanges().deltas;
+    if (!deltas.containsKey(location)) {
+      // counted from the first write, so a load that sees the commit cannot miss the delta
+      guard(location).writers.incrementAndGet();
+    }
+    deltas.merge(
+        location,
+        new long[] {warehouses, capacity},
+        (current, delta) -> new long[] {current[0] + delta[0], current[1] + delta[1]});
+  }
+
+  private void apply(String location, long warehouses, long capacity) {
+    // locations not loaded yet will read the committed state from the database on first use
+    occupancies.computeIfPresent(
+        location,
+        (id, occupancy) ->
+            new LocationOccupancy(
+                occupancy.activeWarehouses + warehouses,
+                occupancy.totalCapacity + capacity,
+                occupancy.totalStock));
+    guard(location).applied.incrementAndGet();
+  }
+
+  private void clear() {
+    invalidations.incrementAndGet();
+    occupancies.clear();
+  }
+
+  private LoadGuard guard(String location) {
+    return guards.computeIfAbsent(location, id -> new LoadGuard());
+  }
+
+  private PendingChanges pendingChanges() {
+    var pending = (PendingChanges) transactionSynchronizationRegistry.getResource(PENDING_CHANGES);
+    if (pending != null) {
+      return pending;
+    }
+
+    var created = new PendingChanges();
+    transactionSynchronizationRegistry.putResource(PENDING_CHANGES, created);
+    transactionSynchronizationRegistry.registerInterposedSynchronization(
+        new Synchronization() {
+          @Override
+          public void beforeCompletion() {}
+
+          @Override
+          public void afterCompletion(int status) {
+            if (status == Status.STATUS_COMMITTED) {
+              if (created.reloadAll) {
+                clear();
+              } else {
+                created.deltas.forEach((location, delta) -> apply(location, delta[0], delta[1]));
+              }
+            }
+            created.deltas.keySet().forEach(location -> guard(location).writers.decrementAndGet());
+          }
+        });
+    return created;
+  }
+
+  // warehouse count and capacity deltas per location written by the current transaction
+  private static final class PendingChanges {
+    private final Map<String, long[]> deltas = new HashMap<>();
+    private boolean reloadAll;
+  }
+
+  private static final class LoadGuard {
+    // open transactions that wrote a delta for the location
+    private final AtomicInteger writers = new AtomicInteger();
+    // deltas applied to the location since startup
+    private final AtomicLong applied = new AtomicLong();
+  }
+}
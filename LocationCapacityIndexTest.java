@@ -0,0 +1,244 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LocationCapacityIndexTest {
+
+  private FakeTransactionSynchronizationRegistry transactions;
+  private Map<String, LocationOccupancy> database;
+  private LocationCapacityIndex index;
+  private int loads;
+  private int groupedLoads;
+
+  @BeforeEach
+  void setUp() {
+    transactions = new FakeTransactionSynchronizationRegistry();
+    database = new HashMap<>();
+    database.put("ZWOLLE-001", new LocationOccupancy(1, 30));
+    database.put("AMSTERDAM-001", new LocationOccupancy(2, 40));
+    database.put("TILBURG-001", new LocationOccupancy(1, 10));
+    index = new LocationCapacityIndex(new FixedLocationResolver(), transactions);
+    loads = 0;
+    groupedLoads = 0;
+  }
+
+  @Test
+  void shouldRankLocationsByRemainingCapacity() {
+    assertEquals(List.of("AMSTERDAM-001", "TILBURG-001"), hostingLocations(15));
+
+    var best = index.findHostingLocations(15, groupedLoader(), loader()).get(0);
+    assertEquals(45, best.remainingCapacity);
+    assertEquals(3, best.freeWarehouseSlots);
+  }
+
+  @Test
+  void shouldLoadEveryLocationWithOneGroupedQuery() {
+    index.findHostingLocations(5, groupedLoader(), loader());
+    index.findHostingLocations(5, groupedLoader(), loader());
+
+    assertEquals(1, groupedLoads);
+    assertEquals(0, loads);
+  }
+
+  @Test
+  void shouldTreatALocationWithoutWarehousesAsEmpty() {
+    database.remove("ZWOLLE-001");
+
+    var zwolle =
+        index.findHostingLocations(40, groupedLoader(), loader()).stream()
+            .filter(headroom -> headroom.location.equals("ZWOLLE-001"))
+            .findFirst()
+            .orElseThrow();
+    assertEquals(2, zwolle.freeWarehouseSlots);
+    assertEquals(0, loads);
+  }
+
+  @Test
+  void shouldApplyWritesOnlyOnceCommitted() {
+    index.findHostingLocations(5, groupedLoader(), loader());
+
+    transactions.begin();
+    index.recordCreated(warehouse("TILBURG-001", 30));
+    index.recordArchived(warehouse("ZWOLLE-001", 30));
+    assertEquals(List.of("AMSTERDAM-001", "TILBURG-001"), hostingLocations(15));
+
+    transactions.complete(Status.STATUS_COMMITTED);
+
+    assertEquals(List.of("AMSTERDAM-001", "ZWOLLE-001"), hostingLocations(15));
+    assertEquals(1, groupedLoads);
+  }
+
+  @Test
+  void shouldDiscardWritesOfRolledBackTransactions() {
+    index.findHostingLocations(5, groupedLoader(), loader());
+
+    transactions.begin();
+    index.recordCreated(warehouse("AMSTERDAM-001", 50));
+    transactions.complete(Status.STATUS_ROLLEDBACK);
+
+    assertEquals(List.of("AMSTERDAM-001", "TILBURG-001"), hostingLocations(15));
+  }
+
+  @Test
+  void shouldReloadEverythingAfterCommittedUpdate() {
+    index.findHostingLocations(5, groupedLoader(), loader());
+
+    transactions.begin();
+    index.invalidateAll();
+    transactions.complete(Status.STATUS_COMMITTED);
+    index.findHostingLocations(5, groupedLoader(), loader());
+
+    assertEquals(2, groupedLoads);
+    assertEquals(0, loads);
+  }
+
+  @Test
+  void shouldNotCacheALoadThatMayAlreadySeeAPendingDelta() {
+    transactions.begin();
+    index.recordCreated(warehouse("AMSTERDAM-001", 50));
+    // committed in the database, but the delta is not applied to the index yet
+    database.put("AMSTERDAM-001", new LocationOccupancy(3, 90));
+    assertEquals(5, remainingCapacity("AMSTERDAM-001", 5));
+
+    transactions.complete(Status.STATUS_COMMITTED);
+
+    // the racing load was not cached, so the delta is not counted twice; the reload is
+    assertEquals(5, remainingCapacity("AMSTERDAM-001", 5));
+    assertEquals(5, remainingCapacity("AMSTERDAM-001", 5));
+    assertEquals(2, groupedLoads);
+    assertEquals(1, loads);
+  }
+
+  private Supplier<Map<String, LocationOccupancy>> groupedLoader() {
+    return () -> {
+      groupedLoads++;
+      var occupancies = new HashMap<String, LocationOccupancy>();
+      database.forEach(
+          (location, occupancy) ->
+              occupancies.put(
+                  location,
+                  new LocationOccupancy(occupancy.activeWarehouses, occupancy.totalCapacity)));
+      return occupancies;
+    };
+  }
+
+  private Function<String, LocationOccupancy> loader() {
+    return location -> {
+      loads++;
+      var occupancy = database.get(location);
+      return new LocationOccupancy(occupancy.activeWarehouses, occupancy.totalCapacity);
+    };
+  }
+
+  private List<String> hostingLocations(int capacity) {
+    return index.findHostingLocations(capacity, groupedLoader(), loader()).stream()
+        .map(headroom -> headroom.location)
+        .toList();
+  }
+
+  private long remainingCapacity(String location, int capacity) {
+    return index.findHostingLocations(capacity, groupedLoader(), loader()).stream()
+        .filter(headroom -> headroom.location.equals(location))
+        .findFirst()
+        .orElseThrow()
+        .remainingCapacity;
+  }
+
+  private static Warehouse warehouse(String location, Integer capacity) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = "MWH.900";
+    warehouse.location = location;
+    warehouse.capacity = capacity;
+    warehouse.stock = 0;
+    return warehouse;
+  }
+
+  private static class FixedLocationResolver implements LocationResolver {
+
+    private final Map<String, Location> locations =
+        Map.of(
+            "ZWOLLE-001", new Location("ZWOLLE-001", 2, 40),
+            "AMSTERDAM-001", new Location("AMSTERDAM-001", 5, 100),
+            "TILBURG-001", new Location("TILBURG-001", 2, 40));
+
+    @Override
+    public Location resolveByIdentifier(String identifier) {
+      return locations.get(identifier);
+    }
+
+    @Override
+    public Collection<Location> getAll() {
+      return locations.values();
+    }
+  }
+
+  private static class FakeTransactionSynchronizationRegistry
+      implements TransactionSynchronizationRegistry {
+
+    private Object transactionKey;
+    private final Map<Object, Object> resources = new HashMap<>();
+    private final List<Synchronization> synchronizations = new ArrayList<>();
+
+    void begin() {
+      transactionKey = new Object();
+    }
+
+    void complete(int status) {
+      synchronizations.forEach(Synchronization::beforeCompletion);
+      transactionKey = null;
+      synchronizations.forEach(sync -> sync.afterCompletion(status));
+      synchronizations.clear();
+      resources.clear();
+    }
+
+    @Override
+    public Object getTransactionKey() {
+      return transactionKey;
+    }
+
+    @Override
+    public void putResource(Object key, Object value) {
+      resources.put(key, value);
+    }
+
+    @Override
+    public Object getResource(Object key) {
+      return resources.get(key);
+    }
+
+    @Override
+    public void registerInterposedSynchronization(Synchronization sync) {
+      synchronizations.add(sync);
+    }
+
+    @Override
+    public int getTransactionStatus() {
+      return transactionKey == null ? Status.STATUS_NO_TRANSACTION : Status.STATUS_ACTIVE;
+    }
+
+    @Override
+    public void setRollbackOnly() {}
+
+    @Override
+    public boolean getRollbackOnly() {
+      return false;
+    }
+  }
+}
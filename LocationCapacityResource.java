@@ -0,0 +1,36 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.LocationCapacityIndex;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationHeadroom;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import java.util.List;
+
+@Path("warehouse/capacity-planning")
+@ApplicationScoped
+@RunOnVirtualThread
+@Produces("application/json")
+public class LocationCapacityResource {
+
+  @Inject LocationCapacityIndex locationCapacityIndex;
+  @Inject WarehouseRepository warehouseRepository;
+
+  @GET
+  public List<LocationHeadroom> findHostingLocations(@QueryParam("capacity") Integer capacity) {
+    if (capacity == null || capacity <= 0) {
+      throw new WebApplicationException("Query parameter capacity must be a positive number", 400);
+    }
+
+    return locationCapacityIndex.findHostingLocations(
+        capacity,
+        warehouseRepository::getOccupancyByLocation,
+        location -> warehouseRepository.getLocationOccupancy(location, null));
+  }
+}
@@ -2,31 +2,151 @@ package com.fulfilment.application.monolith.location;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
 
 @ApplicationScoped
 public class LocationGateway implements LocationResolver {
 
-  private static final List<Location> locations = new ArrayList<>();
+  private static final Logger LOGGER = Logger.getLogger(LocationGateway.class.getName());
 
-  static {
-    locations.add(new Location("ZWOLLE-001", 1, 40));
-    locations.add(new Location("ZWOLLE-002", 2, 50));
-    locations.add(new Location("AMSTERDAM-001", 5, 100));
-    locations.add(new Location("AMSTERDAM-002", 3, 75));
-    locations.add(new Location("TILBURG-001", 1, 40));
-    locations.add(new Location("HELMOND-001", 1, 45));
-    locations.add(new Location("EINDHOVEN-001", 2, 70));
-    locations.add(new Location("VETSBY-001", 1, 90));
+  // bundled registry used when no external file is configured
+  static final String DEFAULT_REGISTRY = "locations.csv";
+
+  @ConfigProperty(name = "location.registry.file")
+  Optional<String> registryFile = Optional.empty();
+
+  @ConfigProperty(name = "location.registry.reload-interval", defaultValue = "30s")
+  Duration reloadInterval = Duration.ofSeconds(30);
+
+  // immutable snapshot, replaced as a whole on reload so lookups never need a lock
+  private volatile Map<String, Location> locations;
+
+  private FileTime loadedVersion;
+  private ScheduledExecutorService reloader;
+
+  public LocationGateway() {
+    try (InputStream defaults =
+        LocationGateway.class.getClassLoader().getResourceAsStream(DEFAULT_REGISTRY)) {
+      if (defaults == null) {
+        throw new IllegalStateException("Location registry " + DEFAULT_REGISTRY + " not found");
+      }
+      locations = parse(defaults);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  LocationGateway(Path registryFile) {
+    this();
+    this.registryFile = Optional.of(registryFile.toString());
+    reloadIfChanged();
+  }
+
+  @PostConstruct
+  void startReloading() {
+    if (registryFile.isEmpty()) {
+      return;
+    }
+
+    reloadIfChanged();
+    reloader =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "location-registry-reloader");
+              thread.setDaemon(true);
+              return thread;
+            });
+    reloader.scheduleWithFixedDelay(
+        this::reloadIfChanged,
+        reloadInterval.toMillis(),
+        reloadInterval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void stopReloading() {
+    if (reloader != null) {
+      reloader.shutdownNow();
+    }
   }
 
   @Override
   public Location resolveByIdentifier(String identifier) {
-    return locations.stream()
-        .filter(location -> location.identification.equals(identifier))
-        .findFirst()
-        .orElse(null);
+    if (identifier == null) {
+      return null;
+    }
+    return locations.get(identifier);
+  }
+
+  @Override
+  public Collection<Location> getAll() {
+    return locations.values();
+  }
+
+  synchronized void reloadIfChanged() {
+    Path file = Path.of(registryFile.orElseThrow());
+    try {
+      FileTime version = Files.getLastModifiedTime(file);
+      if (version.equals(loadedVersion)) {
+        return;
+      }
+
+      try (InputStream input = Files.newInputStream(file)) {
+        locations = parse(input);
+      }
+      loadedVersion = version;
+      LOGGER.infof("Loaded %d locations from %s", locations.size(), file);
+    } catch (IOException | IllegalArgumentException ex) {
+      // keep serving the previous snapshot until the file is fixed
+      LOGGER.errorf(ex, "Failed to load location registry from %s", file);
+    }
+  }
+
+  private static Map<String, Location> parse(InputStream input) throws IOException {
+    var parsed = new HashMap<String, Location>();
+    var reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+    String line;
+    while ((line = reader.readLine()) != null) {
+      line = line.strip();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+
+      String[] columns = line.split(",");
+      if (columns.length != 3) {
+        throw new IllegalArgumentException("Invalid location registry line: " + line);
+      }
+
+      var location =
+          new Location(
+              columns[0].strip(),
+              Integer.parseInt(columns[1].strip()),
+              Integer.parseInt(columns[2].strip()));
+      parsed.put(location.identification, location);
+    }
+
+    return Map.copyOf(parsed);
   }
 }
@@ -2,11 +2,19 @@ package com.fulfilment.application.monolith.location;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class LocationGatewayTest {
 
+  @TempDir Path tempDir;
+
   @Test
   public void testWhenResolveExistingLocationShouldReturn() {
     LocationGateway locationGateway = new LocationGateway();
@@ -16,4 +24,42 @@ public class LocationGatewayTest {
     assertNotNull(location);
     assertEquals("ZWOLLE-001", location.identification);
   }
+
+  @Test
+  public void testWhenResolveUnknownLocationShouldReturnNull() {
+    LocationGateway locationGateway = new LocationGateway();
+
+    assertNull(locationGateway.resolveByIdentifier("UNKNOWN-001"));
+    assertNull(locationGateway.resolveByIdentifier(null));
+  }
+
+  @Test
+  public void testWhenRegistryFileChangesShouldReloadLocations() throws Exception {
+    Path registry = tempDir.resolve("locations.csv");
+    Files.writeString(registry, "ROTTERDAM-001,3,120\n");
+    LocationGateway locationGateway = new LocationGateway(registry);
+
+    assertEquals(120, locationGateway.resolveByIdentifier("ROTTERDAM-001").maxCapacity);
+    assertNull(locationGateway.resolveByIdentifier("ZWOLLE-001"));
+
+    Files.writeString(registry, "ROTTERDAM-001,3,150\nUTRECHT-001,1,60\n");
+    Files.setLastModifiedTime(registry, FileTime.from(Instant.now().plusSeconds(5)));
+    locationGateway.reloadIfChanged();
+
+    assertEquals(150, locationGateway.resolveByIdentifier("ROTTERDAM-001").maxCapacity);
+    assertNotNull(locationGateway.resolveByIdentifier("UTRECHT-001"));
+  }
+
+  @Test
+  public void testWhenRegistryFileIsInvalidShouldKeepPreviousLocations() throws Exception {
+    Path registry = tempDir.resolve("locations.csv");
+    Files.writeString(registry, "ROTTERDAM-001,3,120\n");
+    LocationGateway locationGateway = new LocationGateway(registry);
+
+    Files.writeString(registry, "ROTTERDAM-001,three,120\n");
+    Files.setLastModifiedTime(registry, FileTime.from(Instant.now().plusSeconds(5)));
+    locationGateway.reloadIfChanged();
+
+    assertEquals(120, locationGateway.resolveByIdentifier("ROTTERDAM-001").maxCapacity);
+  }
 }
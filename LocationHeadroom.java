@@ -0,0 +1,23 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+public class LocationHeadroom {
+
+  public String location;
+
+  // warehouses that can still be created in the location
+  public long freeWarehouseSlots;
+
+  // capacity still available in the location before placing the requested warehouse
+  public long freeCapacity;
+
+  // capacity left over after placing the requested warehouse, used for ranking
+  public long remainingCapacity;
+
+  public LocationHeadroom(
+      String location, long freeWarehouseSlots, long freeCapacity, long remainingCapacity) {
+    this.location = location;
+    this.freeWarehouseSlots = freeWarehouseSlots;
+    this.freeCapacity = freeCapacity;
+    this.remainingCapacity = remainingCapacity;
+  }
+}
@@ -0,0 +1,24 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+// Immutable, so cached and shared instances can be handed out as they are.
+public class LocationOccupancy {
+
+  // number of active (not archived) warehouses in the location
+  public final long activeWarehouses;
+
+  // sum of the capacities of the active warehouses in the location
+  public final long totalCapacity;
+
+  // sum of the stock held by the active warehouses in the location
+  public final long totalStock;
+
+  public LocationOccupancy(long activeWarehouses, long totalCapacity) {
+    this(activeWarehouses, totalCapacity, 0);
+  }
+
+  public LocationOccupancy(long activeWarehouses, long totalCapacity, long totalStock) {
+    this.activeWarehouses = activeWarehouses;
+    this.totalCapacity = totalCapacity;
+    this.totalStock = totalStock;
+  }
+}
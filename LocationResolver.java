@@ -1,7 +1,11 @@
 package com.fulfilment.application.monolith.warehouses.domain.ports;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import java.util.Collection;
 
 public interface LocationResolver {
   Location resolveByIdentifier(String identifier);
+
+  // every known location
+  Collection<Location> getAll();
 }
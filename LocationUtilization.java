@@ -0,0 +1,38 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+public class LocationUtilization {
+
+  public String location;
+
+  // active warehouses against the number the location allows
+  public long usedWarehouses;
+  public int maxNumberOfWarehouses;
+
+  // summed warehouse capacity against the capacity the location allows
+  public long totalCapacity;
+  public int maxCapacity;
+
+  // stock held against the summed warehouse capacity
+  public long totalStock;
+
+  // ratios between 0 and 1 of the pairs above, 0 when the maximum is 0
+  public double warehouseUtilization;
+  public double capacityUtilization;
+  public double stockUtilization;
+
+  public LocationUtilization(Location location, LocationOccupancy occupancy) {
+    this.location = location.identification;
+    this.usedWarehouses = occupancy.activeWarehouses;
+    this.maxNumberOfWarehouses = location.maxNumberOfWarehouses;
+    this.totalCapacity = occupancy.totalCapacity;
+    this.maxCapacity = location.maxCapacity;
+    this.totalStock = occupancy.totalStock;
+    this.warehouseUtilization = ratio(usedWarehouses, maxNumberOfWarehouses);
+    this.capacityUtilization = ratio(totalCapacity, maxCapacity);
+    this.stockUtilization = ratio(totalStock, totalCapacity);
+  }
+
+  private static double ratio(long used, long available) {
+    return available == 0 ? 0 : (double) used / available;
+  }
+}
@@ -0,0 +1,8 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationUtilization;
+import java.util.List;
+
+public interface LocationUtilizationOperation {
+  List<LocationUtilization> getUtilization();
+}
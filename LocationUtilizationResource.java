@@ -0,0 +1,25 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationUtilization;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.LocationUtilizationUseCase;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import java.util.List;
+
+@Path("warehouse/location-utilization")
+@ApplicationScoped
+@RunOnVirtualThread
+@Produces("application/json")
+public class LocationUtilizationResource {
+
+  @Inject LocationUtilizationUseCase locationUtilizationUseCase;
+
+  @GET
+  public List<LocationUtilization> getUtilization() {
+    return locationUtilizationUseCase.getUtilization();
+  }
+}
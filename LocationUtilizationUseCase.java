@@ -0,0 +1,38 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationUtilization;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationUtilizationOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.Comparator;
+import java.util.List;
+
+@ApplicationScoped
+public class LocationUtilizationUseCase implements LocationUtilizationOperation {
+
+  private static final LocationOccupancy EMPTY = new LocationOccupancy(0, 0, 0);
+
+  private final WarehouseStore warehouseStore;
+  private final LocationResolver locationResolver;
+
+  public LocationUtilizationUseCase(
+      WarehouseStore warehouseStore, LocationResolver locationResolver) {
+    this.warehouseStore = warehouseStore;
+    this.locationResolver = locationResolver;
+  }
+
+  // every known location, including those without warehouses, ordered by identifier
+  @Override
+  public List<LocationUtilization> getUtilization() {
+    var occupancies = warehouseStore.getOccupancyByLocation();
+    return locationResolver.getAll().stream()
+        .sorted(Comparator.comparing(location -> location.identification))
+        .map(
+            location ->
+                new LocationUtilization(
+                    location, occupancies.getOrDefault(location.identification, EMPTY)))
+        .toList();
+  }
+}
@@ -0,0 +1,73 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LocationUtilizationUseCaseTest {
+
+	private InMemoryWarehouseStore warehouseStore;
+	private LocationUtilizationUseCase useCase;
+
+	@BeforeEach
+	void setUp() {
+		warehouseStore = new InMemoryWarehouseStore();
+		useCase = new LocationUtilizationUseCase(warehouseStore, new FixedLocationResolver());
+	}
+
+	@Test
+	void shouldCombineAggregatedOccupancyWithLocationLimits() {
+		Warehouse warehouse = new Warehouse();
+		warehouse.businessUnitCode = "MWH.900";
+		warehouse.location = "ZWOLLE-001";
+		warehouse.capacity = 30;
+		warehouse.stock = 15;
+		warehouseStore.create(warehouse);
+
+		var utilization = useCase.getUtilization();
+
+		assertEquals(2, utilization.size());
+		var zwolle = utilization.get(1);
+		assertEquals("ZWOLLE-001", zwolle.location);
+		assertEquals(1, zwolle.usedWarehouses);
+		assertEquals(2, zwolle.maxNumberOfWarehouses);
+		assertEquals(0.5, zwolle.warehouseUtilization);
+		assertEquals(0.75, zwolle.capacityUtilization);
+		assertEquals(0.5, zwolle.stockUtilization);
+	}
+
+	@Test
+	void shouldReportLocationsWithoutWarehousesAsUnused() {
+		var amsterdam = useCase.getUtilization().get(0);
+
+		assertEquals("AMSTERDAM-001", amsterdam.location);
+		assertEquals(0, amsterdam.usedWarehouses);
+		assertEquals(100, amsterdam.maxCapacity);
+		assertEquals(0.0, amsterdam.capacityUtilization);
+		assertEquals(0.0, amsterdam.stockUtilization);
+	}
+
+	private static class FixedLocationResolver implements LocationResolver {
+
+		@Override
+		public Location resolveByIdentifier(String identifier) {
+			if ("ZWOLLE-001".equals(identifier)) {
+				return new Location("ZWOLLE-001", 2, 40);
+			}
+			if ("AMSTERDAM-001".equals(identifier)) {
+				return new Location("AMSTERDAM-001", 5, 100);
+			}
+			return null;
+		}
+
+		@Override
+		public List<Location> getAll() {
+			return List.of(resolveByIdentifier("ZWOLLE-001"), resolveByIdentifier("AMSTERDAM-001"));
+		}
+	}
+}
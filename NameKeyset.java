@@ -0,0 +1,79 @@
+package com.fulfilment.application.monolith.paging;
+
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
+import java.util.ArrayList;
+import java.util.List;
+
+// Keyset page ordered by a unique, not null name column: the btree backing the unique constraint
+// serves the cursor, the prefix range and the ordering, so the cost of a page does not grow with
+// the table. Pass query(), SORT and parameters() to Panache find.
+//
+// The column must use the "C" collation. The prefix range is computed by code point, which is the
+// byte order of UTF-8; under a locale collation punctuation sorts before letters and digits, and a
+// prefix ending in Z or 9 would get an upper bound below its own matches.
+public final class NameKeyset {
+
+  public static final Sort SORT = Sort.by("name");
+
+  private final List<String> conditions = new ArrayList<>();
+  private final Parameters parameters = new Parameters();
+
+  public NameKeyset(String afterName, String namePrefix) {
+    if (afterName != null) {
+      conditions.add("name > :afterName");
+      parameters.and("afterName", afterName);
+    }
+    if (namePrefix != null && !namePrefix.isEmpty()) {
+      // the bounds keep the index scan within the prefix, the like keeps the match exact
+      conditions.add("name >= :namePrefix and name like :namePattern escape '\\'");
+      parameters.and("namePrefix", namePrefix).and("namePattern", toLikePrefix(namePrefix));
+      String successor = successor(namePrefix);
+      if (successor != null) {
+        conditions.add("name < :nameSuccessor");
+        parameters.and("nameSuccessor", successor);
+      }
+    }
+  }
+
+  // adds an inclusive range on an int column, either bound may be null
+  public NameKeyset between(String column, Integer min, Integer max) {
+    if (min != null) {
+      conditions.add(column + " >= :min_" + column);
+      parameters.and("min_" + column, min);
+    }
+    if (max != null) {
+      conditions.add(column + " <= :max_" + column);
+      parameters.and("max_" + column, max);
+    }
+    return this;
+  }
+
+  public String query() {
+    return String.join(" and ", conditions);
+  }
+
+  public Parameters parameters() {
+    return parameters;
+  }
+
+  static String toLikePrefix(String prefix) {
+    return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+  }
+
+  // the smallest string greater than every string starting with prefix by code point, null when
+  // there is none
+  static String successor(String prefix) {
+    int end = prefix.length();
+    while (end > 0) {
+      int last = prefix.codePointBefore(end);
+      int start = end - Character.charCount(last);
+      if (last < Character.MAX_CODE_POINT) {
+        int next = last + 1 == Character.MIN_SURROGATE ? Character.MAX_SURROGATE + 1 : last + 1;
+        return new StringBuilder(prefix.substring(0, start)).appendCodePoint(next).toString();
+      }
+      end = start;
+    }
+    return null;
+  }
+}
@@ -0,0 +1,20 @@
+package com.fulfilment.application.monolith.paging;
+
+import jakarta.ws.rs.WebApplicationException;
+
+// the limit parameter of the list endpoints
+public final class PageSize {
+
+  public static final int DEFAULT = 100;
+  public static final int MAX = 500;
+
+  private PageSize() {}
+
+  public static int toPageSize(Integer limit) {
+    int pageSize = limit == null ? DEFAULT : limit;
+    if (pageSize <= 0 || pageSize > MAX) {
+      throw new WebApplicationException("limit must be between 1 and " + MAX, 400);
+    }
+    return pageSize;
+  }
+}
@@ -0,0 +1,12 @@
+package com.fulfilment.application.monolith;
+
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+public class PlatformThreadsBenchmarkTest extends ResourceThreadingBenchmark {
+
+  @Override
+  protected String mode() {
+    return "worker pool";
+  }
+}
@@ -5,6 +5,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import java.math.BigDecimal;
 
 @Entity
@@ -13,7 +14,8 @@ public class Product {
 
   @Id @GeneratedValue public Long id;
 
-  @Column(length = 40, unique = true)
+  // byte ordered, so the unique index serves NameKeyset's prefix range as computed in Java
+  @Column(columnDefinition = "varchar(40) collate \"C\"", unique = true, nullable = false)
   public String name;
 
   @Column(nullable = true)
@@ -24,6 +26,16 @@ public class Product {
 
   public int stock;
 
+  // stock held by reservations not released yet; only the reservation flush writes it
+  @Column(insertable = false, updatable = false, columnDefinition = "bigint default 0 not null")
+  public long reserved;
+
+  // bumped by every write through the entity, so committed changes can be told apart by age;
+  // native stock updates leave it alone as they touch neither name nor description
+  @Version
+  @Column(columnDefinition = "bigint default 0 not null")
+  public Long version;
+
   public Product() {}
 
   public Product(String name) {
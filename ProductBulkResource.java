@@ -0,0 +1,108 @@
+package com.fulfilment.application.monolith.products;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.bulk.ChunkedUpsert;
+import com.fulfilment.application.monolith.bulk.UpsertResult;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.SortedMap;
+
+// Creates or updates products by name, streamed and written in chunks by ChunkedUpsert.
+@Path("product/bulk")
+@ApplicationScoped
+@Produces("application/json")
+public class ProductBulkResource {
+
+  // products written per transaction
+  static final int CHUNK_SIZE = 500;
+
+  static final int MAX_NAME_LENGTH = 40;
+
+  @Inject ProductRepository productRepository;
+  @Inject ObjectMapper objectMapper;
+  @Inject Event<ProductChange> productChange;
+
+  @POST
+  @Consumes("application/json")
+  public List<UpsertResult> upsertArray(InputStream body) throws IOException {
+    return chunkedUpsert().fromArray(body);
+  }
+
+  @POST
+  @Consumes("application/x-ndjson")
+  public List<UpsertResult> upsertNdjson(InputStream body) throws IOException {
+    return chunkedUpsert().fromNdjson(body);
+  }
+
+  private ChunkedUpsert<Product> chunkedUpsert() {
+    return new ChunkedUpsert<>(
+        objectMapper,
+        Product.class,
+        "Product",
+        product -> product.name,
+        MAX_NAME_LENGTH,
+        CHUNK_SIZE,
+        this::upsertChunk);
+  }
+
+  // one query loads the existing products of the chunk; new ones are persisted and changed ones
+  // dirty-checked, so Hibernate flushes both as JDBC batches at commit
+  private List<UpsertResult> upsertChunk(SortedMap<Integer, Product> chunk) {
+    var names = chunk.values().stream().map(product -> product.name).distinct().toList();
+    var productsByName = new HashMap<String, Product>();
+    productRepository
+        .list("name in ?1", names)
+        .forEach(product -> productsByName.put(product.name, product));
+
+    var results = new ArrayList<UpsertResult>(chunk.size());
+    for (var entry : chunk.entrySet()) {
+      var incoming = entry.getValue();
+      var product = productsByName.get(incoming.name);
+
+      if (product == null) {
+        product = new Product(incoming.name);
+        copyDetails(incoming, product);
+        productRepository.persist(product);
+        productsByName.put(product.name, product);
+        productChange.fire(ProductChange.written(product));
+        results.add(UpsertResult.written(entry.getKey(), product.name, product.id, true, false));
+      } else if (!sameDetails(incoming, product)) {
+        copyDetails(incoming, product);
+        productChange.fire(ProductChange.written(product));
+        results.add(UpsertResult.written(entry.getKey(), product.name, product.id, false, true));
+      } else {
+        results.add(UpsertResult.written(entry.getKey(), product.name, product.id, false, false));
+      }
+    }
+    return results;
+  }
+
+  private static void copyDetails(Product source, Product target) {
+    target.description = source.description;
+    target.price = source.price;
+    target.stock = source.stock;
+  }
+
+  private static boolean sameDetails(Product incoming, Product product) {
+    return Objects.equals(incoming.description, product.description)
+        && samePrice(incoming.price, product.price)
+        && incoming.stock == product.stock;
+  }
+
+  // 10.0 and 10.00 are the same price once stored with scale 2
+  private static boolean samePrice(BigDecimal left, BigDecimal right) {
+    return left == null ? right == null : right != null && left.compareTo(right) == 0;
+  }
+}
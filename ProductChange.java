@@ -0,0 +1,60 @@
+package com.fulfilment.application.monolith.products;
+
+// fired inside the transaction that writes a product, observed once it commits
+public class ProductChange {
+
+  private final Long productId;
+  private final String name;
+  private final String description;
+  private final boolean deleted;
+  // the written entity, whose version is only final once the commit has flushed it; null for
+  // deletes and stock adjustments
+  private final Product product;
+
+  private ProductChange(
+      Long productId, String name, String description, boolean deleted, Product product) {
+    this.productId = productId;
+    this.name = name;
+    this.description = description;
+    this.deleted = deleted;
+    this.product = product;
+  }
+
+  public static ProductChange written(Product product) {
+    return new ProductChange(product.id, product.name, product.description, false, product);
+  }
+
+  // stock only, name, description and version are left as they were
+  public static ProductChange stockAdjusted(Long productId) {
+    return new ProductChange(productId, null, null, false, null);
+  }
+
+  public static ProductChange deleted(Long productId) {
+    return new ProductChange(productId, null, null, true, null);
+  }
+
+  public Long productId() {
+    return productId;
+  }
+
+  public String name() {
+    return name;
+  }
+
+  public String description() {
+    return description;
+  }
+
+  public boolean deleted() {
+    return deleted;
+  }
+
+  public boolean stockOnly() {
+    return !deleted && product == null;
+  }
+
+  // the version the commit left on the product, so only meaningful once observed after commit
+  public Long version() {
+    return product == null ? null : product.version;
+  }
+}
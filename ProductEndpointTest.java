@@ -2,9 +2,12 @@ package com.fulfilment.application.monolith.products;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.core.IsNot.not;
 
 import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
 import org.junit.jupiter.api.Test;
 
 @QuarkusTest
@@ -33,4 +36,188 @@ public class ProductEndpointTest {
         .statusCode(200)
         .body(not(containsString("TONSTAD")), containsString("KALLAX"), containsString("BESTÅ"));
   }
+
+  @Test
+  public void testPageProductsByName() {
+    final String path = "product";
+    for (int i = 1; i <= 3; i++) {
+      given()
+          .contentType(ContentType.JSON)
+          .body("{\"name\": \"PAGED-" + i + "\", \"stock\": " + i + "}")
+          .when()
+          .post(path)
+          .then()
+          .statusCode(201);
+    }
+
+    // First page of the prefix, then the rest after the last name of that page:
+    given()
+        .when()
+        .get(path + "?namePrefix=PAGED-&limit=2")
+        .then()
+        .statusCode(200)
+        .body("name", contains("PAGED-1", "PAGED-2"));
+    given()
+        .when()
+        .get(path + "?namePrefix=PAGED-&after=PAGED-2&limit=2")
+        .then()
+        .statusCode(200)
+        .body("name", contains("PAGED-3"));
+
+    // Stock range filter:
+    given()
+        .when()
+        .get(path + "?namePrefix=PAGED-&minStock=2&maxStock=2")
+        .then()
+        .statusCode(200)
+        .body("name", contains("PAGED-2"));
+
+    // Page size is capped:
+    given().when().get(path + "?limit=501").then().statusCode(400);
+  }
+
+  @Test
+  public void testPageProductsByPrefixEndingInZOrNine() {
+    final String path = "product";
+    for (String name : new String[] {"RANGE-Z1", "RANGE-Z2", "RANGE-91", "RANGE-A1"}) {
+      given()
+          .contentType(ContentType.JSON)
+          .body("{\"name\": \"" + name + "\", \"stock\": 1}")
+          .when()
+          .post(path)
+          .then()
+          .statusCode(201);
+    }
+
+    // The upper bound of the prefix range is "RANGE-[" and "RANGE-:", which a locale collation
+    // would sort below the matches:
+    given()
+        .when()
+        .get(path + "?namePrefix=RANGE-Z")
+        .then()
+        .statusCode(200)
+        .body("name", contains("RANGE-Z1", "RANGE-Z2"));
+    given()
+        .when()
+        .get(path + "?namePrefix=RANGE-9")
+        .then()
+        .statusCode(200)
+        .body("name", contains("RANGE-91"));
+  }
+
+  @Test
+  public void testBulkUpsertProducts() {
+    final String path = "product/bulk";
+
+    // Creates new products and rejects the line without a name:
+    given()
+        .contentType("application/x-ndjson")
+        .body("{\"name\": \"BULK-1\", \"stock\": 1}\n{\"stock\": 2}\n{\"name\": \"BULK-2\"}\n")
+        .when()
+        .post(path)
+        .then()
+        .statusCode(200)
+        .body("line", contains(1, 2, 3))
+        .body("created", contains(true, false, true))
+        .body("error[1]", equalTo("Product Name was not set"));
+
+    // Updates by name, leaving unchanged products alone:
+    given()
+        .contentType(ContentType.JSON)
+        .body("[{\"name\": \"BULK-1\", \"stock\": 5}, {\"name\": \"BULK-2\"}]")
+        .when()
+        .post(path)
+        .then()
+        .statusCode(200)
+        .body("created", contains(false, false))
+        .body("updated", contains(true, false));
+
+    given()
+        .when()
+        .get("product?namePrefix=BULK-")
+        .then()
+        .statusCode(200)
+        .body("stock", contains(5, 0));
+
+    // A malformed element ends the array, the elements before it are still written:
+    given()
+        .contentType(ContentType.JSON)
+        .body("[{\"name\": \"BULK-3\"}, {\"name\": }]")
+        .when()
+        .post(path)
+        .then()
+        .statusCode(200)
+        .body("line", contains(1, 2))
+        .body("created", contains(true, false))
+        .body("error[1]", equalTo("Malformed product, the rest of the array was not read"));
+  }
+
+  @Test
+  public void testAdjustProductStock() {
+    final String path = "product";
+    int id =
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\": \"ADJUSTED\", \"stock\": 2}")
+            .when()
+            .post(path)
+            .then()
+            .statusCode(201)
+            .extract()
+            .path("id");
+
+    given()
+        .when()
+        .post(path + "/" + id + "/stock?delta=3")
+        .then()
+        .statusCode(200)
+        .body("stock", equalTo(5));
+    given()
+        .when()
+        .post(path + "/" + id + "/stock?delta=-5")
+        .then()
+        .statusCode(200)
+        .body("stock", equalTo(0));
+
+    // Stock never drops below zero:
+    given().when().post(path + "/" + id + "/stock?delta=-1").then().statusCode(409);
+    // Nor overflows the int column:
+    given()
+        .when()
+        .post(path + "/" + id + "/stock?delta=" + Integer.MAX_VALUE)
+        .then()
+        .statusCode(200);
+    given().when().post(path + "/" + id + "/stock?delta=1").then().statusCode(409);
+    given().when().post(path + "/999999/stock?delta=1").then().statusCode(404);
+  }
+
+  @Test
+  public void testSearchProducts() {
+    final String path = "product";
+
+    // Seeded products are indexed on startup:
+    given()
+        .when()
+        .get(path + "/search?q=kall")
+        .then()
+        .statusCode(200)
+        .body("name", contains("KALLAX"));
+
+    // New products become searchable once committed:
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"name\": \"SÖDERHAMN\", \"description\": \"Modular corner sofa\"}")
+        .when()
+        .post(path)
+        .then()
+        .statusCode(201);
+    given()
+        .when()
+        .get(path + "/search?q=corner so")
+        .then()
+        .statusCode(200)
+        .body("name", contains("SÖDERHAMN"));
+
+    given().when().get(path + "/search").then().statusCode(400);
+  }
 }
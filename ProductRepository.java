@@ -1,7 +1,126 @@
 package com.fulfilment.application.monolith.products;
 
+import com.fulfilment.application.monolith.paging.NameKeyset;
+import com.fulfilment.application.monolith.stock.StockAdjuster;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import org.jboss.logging.Logger;
 
 @ApplicationScoped
-public class ProductRepository implements PanacheRepository<Product> {}
+public class ProductRepository implements PanacheRepository<Product> {
+
+  private static final Logger LOGGER = Logger.getLogger(ProductRepository.class.getName());
+
+  @Inject StockAdjuster stockAdjuster;
+
+  public List<Product> findPage(
+      String afterName, String namePrefix, Integer minStock, Integer maxStock, int limit) {
+    var keyset = new NameKeyset(afterName, namePrefix).between("stock", minStock, maxStock);
+    return find(keyset.query(), NameKeyset.SORT, keyset.parameters()).page(0, limit).list();
+  }
+
+  // Adds delta to the stock atomically; returns a detached snapshot of the product, or null when
+  // it does not exist or the stock would drop below zero or overflow
+  public Product adjustStock(Long id, int delta) {
+    Object[] row =
+        stockAdjuster.adjust(
+            Product.class, "product", "stock", id, delta, "name", "description", "price", "stock");
+    if (row == null) {
+      return null;
+    }
+
+    Product product = new Product((String) row[0]);
+    product.id = id;
+    product.description = (String) row[1];
+    product.price = (BigDecimal) row[2];
+    product.stock = ((Number) row[3]).intValue();
+    return product;
+  }
+
+  @Transactional
+  public ProductStockRow findStock(Long id) {
+    List<ProductStockRow> rows =
+        getEntityManager()
+            .createQuery(
+                ProductStockRow.SELECT + " from Product p where p.id = :id", ProductStockRow.class)
+            .setParameter("id", id)
+            .getResultList();
+    return rows.isEmpty() ? null : rows.get(0);
+  }
+
+  @Transactional
+  public Map<Long, Integer> findStocks(Collection<Long> ids) {
+    var stocks = new HashMap<Long, Integer>();
+    getEntityManager()
+        .createQuery(
+            ProductStockRow.SELECT + " from Product p where p.id in :ids", ProductStockRow.class)
+        .setParameter("ids", ids)
+        .getResultList()
+        .forEach(row -> stocks.put(row.productId, row.stock));
+    return stocks;
+  }
+
+  @Transactional
+  public long findFlushedEpoch() {
+    var checkpoint =
+        getEntityManager().find(ProductStockCheckpoint.class, ProductStockCheckpoint.ID);
+    return checkpoint == null ? 0 : checkpoint.flushedEpoch;
+  }
+
+  // Applies the net reservation deltas up to an epoch and moves the checkpoint in one transaction;
+  // rows are updated in id order, so concurrent writers cannot deadlock against a flush. A delta
+  // moves stock into reserved (or back). Stock written outside the engine can make a delta take
+  // more than there is, the stock then stops at zero instead of going negative.
+  @Transactional
+  public void applyStockDeltas(SortedMap<Long, Long> deltas, long epoch) {
+    var entityManager = getEntityManager();
+    deltas.forEach(
+        (id, delta) -> {
+          int updated =
+              entityManager
+                  .createNativeQuery(
+                      "update product set stock = stock + :delta,"
+                          + " reserved = greatest(reserved - :delta, 0)"
+                          + " where id = :id and stock + :delta between 0 and :max")
+                  .setParameter("delta", delta)
+                  .setParameter("max", Integer.MAX_VALUE)
+                  .setParameter("id", id)
+                  .executeUpdate();
+          if (updated == 0) {
+            updated =
+                entityManager
+                    .createNativeQuery(
+                        "update product set"
+                            + " stock = case when stock + :delta < 0 then 0 else :max end,"
+                            + " reserved = greatest(reserved - :delta, 0)"
+                            + " where id = :id")
+                    .setParameter("delta", delta)
+                    .setParameter("max", Integer.MAX_VALUE)
+                    .setParameter("id", id)
+                    .executeUpdate();
+            if (updated > 0) {
+              LOGGER.warnf(
+                  "Clamped the stock of product %d, a delta of %d left its range", id, delta);
+            }
+          }
+          stockAdjuster.evictAfterCompletion(Product.class, id);
+        });
+
+    var checkpoint = entityManager.find(ProductStockCheckpoint.class, ProductStockCheckpoint.ID);
+    if (checkpoint == null) {
+      checkpoint = new ProductStockCheckpoint();
+      checkpoint.id = ProductStockCheckpoint.ID;
+      entityManager.persist(checkpoint);
+    }
+    checkpoint.flushedEpoch = Math.max(checkpoint.flushedEpoch, epoch);
+  }
+
+}
@@ -0,0 +1,19 @@
+package com.fulfilment.application.monolith.products;
+
+public class ProductReservation {
+
+  public Long productId;
+
+  public int quantity;
+
+  // stock left to reserve right after this call
+  public long available;
+
+  public static ProductReservation create(Long productId, int quantity, long available) {
+    var reservation = new ProductReservation();
+    reservation.productId = productId;
+    reservation.quantity = quantity;
+    reservation.available = available;
+    return reservation;
+  }
+}
@@ -0,0 +1,62 @@
+package com.fulfilment.application.monolith.products;
+
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import java.util.List;
+
+@Path("product/reservations")
+@ApplicationScoped
+@RunOnVirtualThread
+@Produces("application/json")
+public class ProductReservationResource {
+
+  @Inject ProductStockReservations productStockReservations;
+
+  @POST
+  @Path("{id}")
+  public ProductReservation reserve(Long id, @QueryParam("quantity") Integer quantity) {
+    try {
+      if (!productStockReservations.reserve(id, toQuantity(quantity))) {
+        throw new WebApplicationException("Product stock is not sufficient.", 409);
+      }
+      return ProductReservation.create(id, quantity, productStockReservations.available(id));
+    } catch (IllegalArgumentException ex) {
+      throw new WebApplicationException(ex.getMessage(), 404);
+    }
+  }
+
+  @DELETE
+  @Path("{id}")
+  public ProductReservation release(Long id, @QueryParam("quantity") Integer quantity) {
+    try {
+      if (!productStockReservations.release(id, toQuantity(quantity))) {
+        throw new WebApplicationException("Release exceeds the reserved quantity.", 409);
+      }
+      return ProductReservation.create(id, quantity, productStockReservations.available(id));
+    } catch (IllegalArgumentException ex) {
+      throw new WebApplicationException(ex.getMessage(), 404);
+    }
+  }
+
+  // products whose reservable stock does not match the product table plus unflushed deltas
+  @GET
+  @Path("consistency")
+  public List<ProductStockDrift> checkConsistency() {
+    return productStockReservations.checkConsistency();
+  }
+
+  private static int toQuantity(Integer quantity) {
+    if (quantity == null || quantity <= 0) {
+      throw new WebApplicationException("A positive quantity must be set on request.", 400);
+    }
+    return quantity;
+  }
+}
@@ -1,10 +1,14 @@
 package com.fulfilment.application.monolith.products;
 
+import static com.fulfilment.application.monolith.paging.PageSize.toPageSize;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import io.quarkus.panache.common.Sort;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
@@ -13,26 +17,52 @@ import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
 import java.util.List;
+import org.hibernate.StaleStateException;
 import org.jboss.logging.Logger;
 
 @Path("product")
 @ApplicationScoped
+@RunOnVirtualThread
 @Produces("application/json")
 @Consumes("application/json")
 public class ProductResource {
 
   @Inject ProductRepository productRepository;
+  @Inject ProductSearchIndex productSearchIndex;
+  @Inject Event<ProductChange> productChange;
 
   private static final Logger LOGGER = Logger.getLogger(ProductResource.class.getName());
 
+  // Products ordered by name, one page at a time: pass the name of the last product of a page as
+  // after to fetch the next one
+  @GET
+  public List<Product> get(
+      @QueryParam("after") String after,
+      @QueryParam("namePrefix") String namePrefix,
+      @QueryParam("minStock") Integer minStock,
+      @QueryParam("maxStock") Integer maxStock,
+      @QueryParam("limit") Integer limit) {
+    if (minStock != null && maxStock != null && minStock > maxStock) {
+      throw new WebApplicationException("minStock must not be greater than maxStock", 400);
+    }
+    return productRepository.findPage(after, namePrefix, minStock, maxStock, toPageSize(limit));
+  }
+
+  // Products matching every word of q, the last word also as a prefix, best match first
   @GET
-  public List<Product> get() {
-    return productRepository.listAll(Sort.by("name"));
+  @Path("search")
+  public List<ProductSearchHit> search(
+      @QueryParam("q") String query, @QueryParam("limit") Integer limit) {
+    if (query == null || query.isBlank()) {
+      throw new WebApplicationException("A search query must be set on request.", 400);
+    }
+    return productSearchIndex.search(query, toPageSize(limit));
   }
 
   @GET
@@ -51,8 +81,12 @@ public class ProductResource {
     if (product.id != null) {
       throw new WebApplicationException("Id was invalidly set on request.", 422);
     }
+    if (product.name == null) {
+      throw new WebApplicationException("Product Name was not set on request.", 422);
+    }
 
     productRepository.persist(product);
+    productChange.fire(ProductChange.written(product));
     return Response.ok(product).status(201).build();
   }
 
@@ -76,10 +110,32 @@ public class ProductResource {
     entity.stock = product.stock;
 
     productRepository.persist(entity);
+    productChange.fire(ProductChange.written(entity));
 
     return entity;
   }
 
+  // Adds delta (negative to take stock out) atomically; the stock stays within 0..Integer.MAX_VALUE
+  @POST
+  @Path("{id}/stock")
+  @Transactional
+  public Product adjustStock(Long id, @QueryParam("delta") Integer delta) {
+    if (delta == null || delta == 0) {
+      throw new WebApplicationException("A non-zero delta must be set on request.", 400);
+    }
+
+    Product adjusted = productRepository.adjustStock(id, delta);
+    if (adjusted == null) {
+      if (productRepository.findById(id) == null) {
+        throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
+      }
+      throw new WebApplicationException(
+          "Product stock cannot drop below zero or exceed " + Integer.MAX_VALUE + ".", 409);
+    }
+    productChange.fire(ProductChange.stockAdjusted(id));
+    return adjusted;
+  }
+
   @DELETE
   @Path("{id}")
   @Transactional
@@ -89,6 +145,7 @@ public class ProductResource {
       throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
     }
     productRepository.delete(entity);
+    productChange.fire(ProductChange.deleted(id));
     return Response.status(204).build();
   }
 
@@ -104,6 +161,9 @@ public class ProductResource {
       int code = 500;
       if (exception instanceof WebApplicationException) {
         code = ((WebApplicationException) exception).getResponse().getStatus();
+      } else if (isStale(exception)) {
+        // the product was written by another request since it was read
+        code = 409;
       }
 
       ObjectNode exceptionJson = objectMapper.createObjectNode();
@@ -116,5 +176,14 @@ public class ProductResource {
 
       return Response.status(code).entity(exceptionJson).build();
     }
+
+    private static boolean isStale(Throwable failure) {
+      for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+        if (cause instanceof OptimisticLockException || cause instanceof StaleStateException) {
+          return true;
+        }
+      }
+      return false;
+    }
   }
 }
@@ -0,0 +1,19 @@
+package com.fulfilment.application.monolith.products;
+
+public class ProductSearchHit {
+
+  public Long id;
+
+  public String name;
+
+  // tf-idf relevance, higher ranks first
+  public double score;
+
+  public static ProductSearchHit create(Long id, String name, double score) {
+    var hit = new ProductSearchHit();
+    hit.id = id;
+    hit.name = name;
+    hit.score = score;
+    return hit;
+  }
+}
@@ -0,0 +1,503 @@
+package com.fulfilment.application.monolith.products;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import org.jboss.logging.Logger;
+
+// In-process full-text index over product names and descriptions: an inverted index from term to
+// the products containing it, plus a trie over the terms for search-as-you-type. Built from the
+// product table on startup and kept current from committed ProductChange events.
+//
+// Every word of a query must match; the last one also matches as a prefix. Results are ranked by
+// tf-idf, with name matches weighing more than description matches. Postings are sorted primitive
+// arrays, so a query is a few linear merges and only the returned hits touch any object.
+@ApplicationScoped
+public class ProductSearchIndex {
+
+  private static final Logger LOGGER = Logger.getLogger(ProductSearchIndex.class.getName());
+
+  static final int NAME_WEIGHT = 3;
+  static final int DESCRIPTION_WEIGHT = 1;
+
+  // terms a prefix expands to at most, the ones in the most products, so a one-letter prefix
+  // stays cheap to score and still finds what most products are named after
+  static final int MAX_PREFIX_TERMS = 16;
+
+  private static final String ALL_PRODUCTS =
+      "select p.id, p.name, p.description, p.version from Product p";
+
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  @Inject ProductRepository productRepository;
+
+  private final Map<String, Postings> postings = new HashMap<>();
+  // product id -> its terms, to unindex the previous version on change
+  private final Map<Long, String[]> termsByProduct = new HashMap<>();
+  private final Map<Long, String> names = new HashMap<>();
+  // product id -> version last applied, so a change observed after a newer one is dropped; a
+  // delete leaves Long.MAX_VALUE behind, ids are never reused
+  private final Map<Long, Long> versions = new HashMap<>();
+  private final TrieNode terms = new TrieNode();
+
+  // searches share the read lock; changes are rare and short, a lock rather than a monitor so
+  // contended virtual threads unmount instead of pinning
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  void build(@Observes StartupEvent event) {
+    lock.writeLock().lock();
+    try {
+      QuarkusTransaction.requiringNew()
+          .run(
+              () ->
+                  productRepository
+                      .getEntityManager()
+                      .createQuery(ALL_PRODUCTS, Object[].class)
+                      .getResultStream()
+                      .forEach(
+                          row ->
+                              index(
+                                  (Long) row[0], (String) row[1], (String) row[2], (Long) row[3])));
+      LOGGER.infof("Indexed %d products for search", names.size());
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // observers of transactions committing concurrently may run in any order, hence the versions
+  void onProductChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProductChange change) {
+    if (change.deleted()) {
+      remove(change.productId(), Long.MAX_VALUE);
+    } else if (!change.stockOnly()) {
+      index(change.productId(), change.name(), change.description(), change.version());
+    }
+  }
+
+  public void index(Long productId, String name, String description) {
+    index(productId, name, description, null);
+  }
+
+  // a null version applies unconditionally
+  private void index(Long productId, String name, String description, Long version) {
+    var weights = new HashMap<String, Integer>();
+    tokenize(name).forEach(term -> weights.merge(term, NAME_WEIGHT, Integer::sum));
+    tokenize(description).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+
+    lock.writeLock().lock();
+    try {
+      if (!advance(productId, version)) {
+        return;
+      }
+      unindex(productId);
+      var productTerms = new String[weights.size()];
+      int next = 0;
+      for (var entry : weights.entrySet()) {
+        var products = postings.get(entry.getKey());
+        if (products == null) {
+          products = new Postings();
+          postings.put(entry.getKey(), products);
+          terms.insert(entry.getKey());
+        }
+        products.put(productId, entry.getValue());
+        productTerms[next++] = entry.getKey();
+      }
+      termsByProduct.put(productId, productTerms);
+      names.put(productId, name);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(Long productId) {
+    remove(productId, null);
+  }
+
+  private void remove(Long productId, Long version) {
+    lock.writeLock().lock();
+    try {
+      if (advance(productId, version)) {
+        unindex(productId);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // equal versions come from one transaction, whose observers run in the order it fired them
+  private boolean advance(Long productId, Long version) {
+    if (version == null) {
+      return true;
+    }
+    Long applied = versions.get(productId);
+    if (applied != null && applied > version) {
+      return false;
+    }
+    versions.put(productId, version);
+    return true;
+  }
+
+  public List<ProductSearchHit> search(String query, int limit) {
+    var words = tokenize(query);
+    if (words.isEmpty()) {
+      return List.of();
+    }
+
+    lock.readLock().lock();
+    try {
+      // each word becomes the terms it matches: itself, or its expansions for the last word
+      var matches = new ArrayList<List<String>>(words.size());
+      for (int index = 0; index < words.size(); index++) {
+        String word = words.get(index);
+        var expansions =
+            index == words.size() - 1
+                ? expand(word)
+                : postings.containsKey(word) ? List.of(word) : List.<String>of();
+        if (expansions.isEmpty()) {
+          return List.of();
+        }
+        matches.add(expansions);
+      }
+
+      // start from the word with the fewest candidates and keep only what every word matches
+      matches.sort(Comparator.comparingLong(this::candidateCount));
+      var scores = score(matches.get(0));
+      for (int index = 1; index < matches.size() && scores.size > 0; index++) {
+        scores = Scores.intersect(scores, score(matches.get(index)));
+      }
+      return top(scores, limit);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  static List<String> tokenize(String text) {
+    if (text == null || text.isBlank()) {
+      return List.of();
+    }
+    String folded =
+        MARKS
+            .matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+            .replaceAll("")
+            .toLowerCase(Locale.ROOT);
+    var tokens = new ArrayList<String>();
+    for (String token : SEPARATORS.split(folded)) {
+      if (!token.isEmpty()) {
+        tokens.add(token);
+      }
+    }
+    return tokens;
+  }
+
+  // the prefix itself when it is a term, then the terms starting with it that are in the most
+  // products, ties alphabetical; walks every term under the prefix but touches no postings
+  private List<String> expand(String prefix) {
+    boolean exact = postings.containsKey(prefix);
+    int max = exact ? MAX_PREFIX_TERMS - 1 : MAX_PREFIX_TERMS;
+    Comparator<String> rarestFirst =
+        Comparator.<String>comparingInt(term -> postings.get(term).size)
+            .thenComparing(Comparator.reverseOrder());
+    var heap = new PriorityQueue<String>(max + 1, rarestFirst);
+    terms.forEachStartingWith(
+        prefix,
+        term -> {
+          if (term.length() > prefix.length()) {
+            heap.add(term);
+            if (heap.size() > max) {
+              heap.poll();
+            }
+          }
+        });
+
+    var expansions = new ArrayList<String>(heap.size() + 1);
+    if (exact) {
+      expansions.add(prefix);
+    }
+    expansions.addAll(heap);
+    return expansions;
+  }
+
+  private long candidateCount(List<String> expansions) {
+    long count = 0;
+    for (String term : expansions) {
+      count += postings.get(term).size;
+    }
+    return count;
+  }
+
+  // best scoring term per product, so a prefix matching several words of a product counts once;
+  // merged pairwise so each round is a linear pass over sorted ids
+  private Scores score(List<String> expansions) {
+    var pending = new ArrayDeque<Scores>(expansions.size());
+    for (String term : expansions) {
+      var products = postings.get(term);
+      pending.add(products.score(Math.log(1 + (double) names.size() / products.size)));
+    }
+    while (pending.size() > 1) {
+      pending.add(Scores.union(pending.poll(), pending.poll()));
+    }
+    return pending.poll();
+  }
+
+  // best first, ties to the oldest product; names are only looked up for the hits returned
+  private List<ProductSearchHit> top(Scores scores, int limit) {
+    Comparator<Integer> weakestFirst =
+        Comparator.<Integer>comparingDouble(index -> scores.values[index])
+            .thenComparing(index -> scores.ids[index], Comparator.reverseOrder());
+    var heap = new PriorityQueue<Integer>(limit + 1, weakestFirst);
+    for (int index = 0; index < scores.size; index++) {
+      if (heap.size() < limit) {
+        heap.add(index);
+      } else if (weakestFirst.compare(index, heap.peek()) > 0) {
+        heap.poll();
+        heap.add(index);
+      }
+    }
+
+    var hits = new ArrayList<ProductSearchHit>(heap.size());
+    while (!heap.isEmpty()) {
+      int index = heap.poll();
+      long id = scores.ids[index];
+      hits.add(ProductSearchHit.create(id, names.get(id), scores.values[index]));
+    }
+    Collections.reverse(hits);
+    return hits;
+  }
+
+  private void unindex(Long productId) {
+    var previous = termsByProduct.remove(productId);
+    names.remove(productId);
+    if (previous == null) {
+      return;
+    }
+    for (String term : previous) {
+      var products = postings.get(term);
+      products.remove(productId);
+      if (products.size == 0) {
+        postings.remove(term);
+        terms.delete(term);
+      }
+    }
+  }
+
+  // ids of the products containing a term, sorted, with their weighted occurrences; primitive
+  // arrays keep a scan over a popular term within a few cache lines per product
+  private static final class Postings {
+
+    private long[] ids = new long[4];
+    private int[] weights = new int[4];
+    private int size;
+
+    private void put(long id, int weight) {
+      int index = Arrays.binarySearch(ids, 0, size, id);
+      if (index >= 0) {
+        weights[index] = weight;
+        return;
+      }
+      index = -index - 1;
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+        weights = Arrays.copyOf(weights, size * 2);
+      }
+      System.arraycopy(ids, index, ids, index + 1, size - index);
+      System.arraycopy(weights, index, weights, index + 1, size - index);
+      ids[index] = id;
+      weights[index] = weight;
+      size++;
+    }
+
+    private void remove(long id) {
+      int index = Arrays.binarySearch(ids, 0, size, id);
+      if (index < 0) {
+        return;
+      }
+      System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+      System.arraycopy(weights, index + 1, weights, index, size - index - 1);
+      size--;
+    }
+
+    // shares the id array, which does not change while the read lock is held
+    private Scores score(double idf) {
+      var values = new double[size];
+      for (int index = 0; index < size; index++) {
+        values[index] = weights[index] * idf;
+      }
+      return new Scores(ids, values, size);
+    }
+  }
+
+  // product ids in ascending order with their score
+  private static final class Scores {
+
+    private final long[] ids;
+    private final double[] values;
+    private final int size;
+
+    private Scores(long[] ids, double[] values, int size) {
+      this.ids = ids;
+      this.values = values;
+      this.size = size;
+    }
+
+    // products in either, keeping the better score
+    private static Scores union(Scores left, Scores right) {
+      var ids = new long[left.size + right.size];
+      var values = new double[ids.length];
+      int l = 0;
+      int r = 0;
+      int size = 0;
+      while (l < left.size || r < right.size) {
+        if (r == right.size || (l < left.size && left.ids[l] < right.ids[r])) {
+          ids[size] = left.ids[l];
+          values[size++] = left.values[l++];
+        } else if (l == left.size || right.ids[r] < left.ids[l]) {
+          ids[size] = right.ids[r];
+          values[size++] = right.values[r++];
+        } else {
+          ids[size] = left.ids[l];
+          values[size++] = Math.max(left.values[l++], right.values[r++]);
+        }
+      }
+      return new Scores(ids, values, size);
+    }
+
+    // products in both, adding up the scores
+    private static Scores intersect(Scores left, Scores right) {
+      var ids = new long[Math.min(left.size, right.size)];
+      var values = new double[ids.length];
+      int l = 0;
+      int r = 0;
+      int size = 0;
+      while (l < left.size && r < right.size) {
+        if (left.ids[l] < right.ids[r]) {
+          l++;
+        } else if (right.ids[r] < left.ids[l]) {
+          r++;
+        } else {
+          ids[size] = left.ids[l];
+          values[size++] = left.values[l++] + right.values[r++];
+        }
+      }
+      return new Scores(ids, values, size);
+    }
+  }
+
+  // children are kept in sorted parallel arrays: small, and walked in order without sorting
+  private static final class TrieNode {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
+    private char[] keys = NO_KEYS;
+    private TrieNode[] children = NO_CHILDREN;
+    private boolean term;
+
+    private void insert(String word) {
+      var node = this;
+      for (int index = 0; index < word.length(); index++) {
+        node = node.childOrCreate(word.charAt(index));
+      }
+      node.term = true;
+    }
+
+    // unmarks the word and prunes the branch nodes it leaves without any term
+    private void delete(String word) {
+      var path = new TrieNode[word.length() + 1];
+      var node = this;
+      path[0] = node;
+      for (int index = 0; index < word.length(); index++) {
+        node = node.child(word.charAt(index));
+        if (node == null) {
+          return;
+        }
+        path[index + 1] = node;
+      }
+      node.term = false;
+      for (int index = word.length(); index > 0; index--) {
+        var child = path[index];
+        if (child.term || child.keys.length > 0) {
+          return;
+        }
+        path[index - 1].removeChild(word.charAt(index - 1));
+      }
+    }
+
+    private void forEachStartingWith(String prefix, Consumer<String> action) {
+      var node = this;
+      for (int index = 0; index < prefix.length() && node != null; index++) {
+        node = node.child(prefix.charAt(index));
+      }
+      if (node != null) {
+        node.visit(new StringBuilder(prefix), action);
+      }
+    }
+
+    private void visit(StringBuilder word, Consumer<String> action) {
+      if (term) {
+        action.accept(word.toString());
+      }
+      for (int index = 0; index < keys.length; index++) {
+        word.append(keys[index]);
+        children[index].visit(word, action);
+        word.setLength(word.length() - 1);
+      }
+    }
+
+    private TrieNode child(char key) {
+      int index = Arrays.binarySearch(keys, key);
+      return index < 0 ? null : children[index];
+    }
+
+    private TrieNode childOrCreate(char key) {
+      int index = Arrays.binarySearch(keys, key);
+      if (index >= 0) {
+        return children[index];
+      }
+      index = -index - 1;
+      var child = new TrieNode();
+      var newKeys = new char[keys.length + 1];
+      var newChildren = new TrieNode[keys.length + 1];
+      System.arraycopy(keys, 0, newKeys, 0, index);
+      System.arraycopy(children, 0, newChildren, 0, index);
+      newKeys[index] = key;
+      newChildren[index] = child;
+      System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+      System.arraycopy(children, index, newChildren, index + 1, keys.length - index);
+      keys = newKeys;
+      children = newChildren;
+      return child;
+    }
+
+    private void removeChild(char key) {
+      int index = Arrays.binarySearch(keys, key);
+      if (index < 0) {
+        return;
+      }
+      var newKeys = new char[keys.length - 1];
+      var newChildren = new TrieNode[keys.length - 1];
+      System.arraycopy(keys, 0, newKeys, 0, index);
+      System.arraycopy(children, 0, newChildren, 0, index);
+      System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+      System.arraycopy(children, index + 1, newChildren, index, keys.length - index - 1);
+      keys = newKeys;
+      children = newChildren;
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.fulfilment.application.monolith.products;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ProductSearchIndexTest {
+
+  private ProductSearchIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new ProductSearchIndex();
+    index.index(1L, "TONSTAD", "Sofa with chaise longue");
+    index.index(2L, "KALLAX", "Shelving unit, fits storage boxes");
+    index.index(3L, "BESTÅ", "Storage combination with doors");
+    index.index(4L, "STORÅ", "Loft bed frame");
+  }
+
+  @Test
+  void shouldRankNameMatchesAboveDescriptionMatches() {
+    // "stor" expands to storage and stora: STORÅ matches on its name, the others on their
+    // descriptions, tied and ordered by id
+    assertEquals(List.of(4L, 2L, 3L), ids(index.search("stor", 10)));
+  }
+
+  @Test
+  void shouldRequireEveryWordAndExpandOnlyTheLastOne() {
+    assertEquals(List.of(3L), ids(index.search("storage comb", 10)));
+    assertTrue(index.search("stor comb", 10).isEmpty());
+  }
+
+  @Test
+  void shouldFoldCaseAndDiacritics() {
+    assertEquals(List.of(3L), ids(index.search("Besta", 10)));
+    assertEquals(List.of(3L), ids(index.search("bestå", 10)));
+  }
+
+  @Test
+  void shouldReplaceAndRemoveProductsIncrementally() {
+    index.index(1L, "TONSTAD", "Armchair");
+    assertTrue(index.search("sofa", 10).isEmpty());
+    assertEquals(List.of(1L), ids(index.search("arm", 10)));
+
+    index.remove(3L);
+    assertTrue(index.search("comb", 10).isEmpty());
+    assertEquals(List.of(4L, 2L), ids(index.search("stor", 10)));
+  }
+
+  @Test
+  void shouldReturnOnlyTheBestHits() {
+    assertEquals(List.of(4L), ids(index.search("stor", 1)));
+  }
+
+  @Test
+  void shouldExpandAPrefixToTheTermsInTheMostProducts() {
+    // more rare terms under "b" than a prefix expands to, all alphabetically before "bin"
+    for (int term = 0; term < ProductSearchIndex.MAX_PREFIX_TERMS; term++) {
+      index.index(10L + term, "BA" + (char) ('A' + term), null);
+    }
+    index.index(40L, "BIN", null);
+    index.index(41L, "SORTING", "Bin with lid");
+
+    assertTrue(ids(index.search("b", 50)).containsAll(List.of(40L, 41L)));
+  }
+
+  @Test
+  void shouldIgnoreChangesOlderThanTheIndexedOne() {
+    index.onProductChanged(ProductChange.written(product(1L, "TONSTAD", "Armchair", 2L)));
+    index.onProductChanged(ProductChange.written(product(1L, "TONSTAD", "Sofa bed", 1L)));
+    assertTrue(index.search("sofa", 10).isEmpty());
+    assertEquals(List.of(1L), ids(index.search("arm", 10)));
+
+    index.onProductChanged(ProductChange.deleted(1L));
+    index.onProductChanged(ProductChange.written(product(1L, "TONSTAD", "Armchair", 3L)));
+    assertTrue(index.search("tonstad", 10).isEmpty());
+  }
+
+  private static Product product(Long id, String name, String description, Long version) {
+    var product = new Product(name);
+    product.id = id;
+    product.description = description;
+    product.version = version;
+    return product;
+  }
+
+  private static List<Long> ids(List<ProductSearchHit> hits) {
+    return hits.stream().map(hit -> hit.id).toList();
+  }
+}
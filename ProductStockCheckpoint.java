@@ -0,0 +1,18 @@
+package com.fulfilment.application.monolith.products;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// last reservation epoch whose deltas are in the product table; a single row, written in the same
+// transaction as the deltas so a replay never applies an epoch twice
+@Entity
+@Table(name = "product_stock_checkpoint")
+public class ProductStockCheckpoint {
+
+  static final long ID = 1L;
+
+  @Id public Long id;
+
+  public long flushedEpoch;
+}
@@ -0,0 +1,25 @@
+package com.fulfilment.application.monolith.products;
+
+public class ProductStockDrift {
+
+  public Long productId;
+
+  // stock in the product table, null when the product no longer exists
+  public Integer persistedStock;
+
+  // reservation deltas not flushed to the product table yet
+  public long unflushedDelta;
+
+  // stock the reservation engine hands out
+  public long available;
+
+  public static ProductStockDrift create(
+      Long productId, Integer persistedStock, long unflushedDelta, long available) {
+    var drift = new ProductStockDrift();
+    drift.productId = productId;
+    drift.persistedStock = persistedStock;
+    drift.unflushedDelta = unflushedDelta;
+    drift.available = available;
+    return drift;
+  }
+}
@@ -0,0 +1,141 @@
+package com.fulfilment.application.monolith.products;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Write-ahead log of stock reservation deltas, one preallocated memory-mapped segment per epoch of
+// ProductStockReservations. Records have a fixed size, so appenders claim a slot with a single
+// atomic increment and write it without any lock. Records live in the page cache as soon as they
+// are written and survive a crash of the process; a segment is deleted once its epoch is flushed.
+//
+// Record layout: long product id, int delta, int CRC32 of both. A slot whose CRC does not match was
+// claimed but not completely written and is skipped on replay.
+class ProductStockJournal {
+
+  static final int RECORD_BYTES = 16;
+
+  private final Path directory;
+  private final int segmentRecords;
+
+  ProductStockJournal(Path directory, int segmentRecords) {
+    this.directory = directory;
+    this.segmentRecords = segmentRecords;
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  Segment open(long epoch) {
+    try (var channel =
+        FileChannel.open(
+            segmentFile(epoch),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      return new Segment(
+          epoch,
+          channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * RECORD_BYTES));
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  // epochs with a segment on disk, oldest first
+  List<Long> epochs() {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .map(file -> file.getFileName().toString())
+          .filter(name -> name.startsWith("epoch-") && name.endsWith(".journal"))
+          .map(name -> Long.parseLong(name.substring(6, name.length() - 8)))
+          .sorted()
+          .toList();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  // net delta per product of the complete records of a segment
+  Map<Long, Long> read(long epoch) {
+    var deltas = new HashMap<Long, Long>();
+    try (var channel = FileChannel.open(segmentFile(epoch), StandardOpenOption.READ)) {
+      var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      for (int offset = 0; offset + RECORD_BYTES <= buffer.limit(); offset += RECORD_BYTES) {
+        long productId = buffer.getLong(offset);
+        int delta = buffer.getInt(offset + 8);
+        if (delta != 0 && buffer.getInt(offset + 12) == checksum(productId, delta)) {
+          deltas.merge(productId, (long) delta, Long::sum);
+        }
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return deltas;
+  }
+
+  void delete(long epoch) {
+    try {
+      Files.deleteIfExists(segmentFile(epoch));
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private Path segmentFile(long epoch) {
+    return directory.resolve(String.format("epoch-%019d.journal", epoch));
+  }
+
+  static int checksum(long productId, int delta) {
+    var crc = new CRC32();
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      crc.update((int) (productId >>> shift));
+    }
+    for (int shift = 24; shift >= 0; shift -= 8) {
+      crc.update(delta >>> shift);
+    }
+    return (int) crc.getValue();
+  }
+
+  static final class Segment {
+
+    final long epoch;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private Segment(long epoch, MappedByteBuffer buffer) {
+      this.epoch = epoch;
+      this.buffer = buffer;
+      this.capacity = buffer.capacity() / RECORD_BYTES;
+    }
+
+    // false when the segment is full; absolute puts into distinct slots need no coordination
+    boolean append(long productId, int delta) {
+      int slot = next.getAndIncrement();
+      if (slot >= capacity) {
+        return false;
+      }
+      int offset = slot * RECORD_BYTES;
+      buffer.putLong(offset, productId);
+      buffer.putInt(offset + 8, delta);
+      buffer.putInt(offset + 12, checksum(productId, delta));
+      return true;
+    }
+
+    boolean isEmpty() {
+      return next.get() == 0;
+    }
+  }
+}
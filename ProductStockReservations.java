@@ -0,0 +1,396 @@
+package com.fulfilment.application.monolith.products;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+// Write-behind stock reservations for products under heavy contention. Each product gets a
+// StripedStockCounter seeded from the product table plus the unflushed deltas on first use; reserve
+// and release only touch that counter and append to the ProductStockJournal, no database row is
+// locked on the way. Releases are capped at what is reserved, tracked in the reserved column.
+//
+// Deltas are collected per epoch. A flush seals the current epoch, waits for the calls still
+// writing to it, and applies the net delta of each product together with the epoch checkpoint in
+// one transaction before dropping the epoch's journal segment. On startup, segments newer than the
+// checkpoint (the process died before flushing them) are replayed into the product table first.
+//
+// Writes that bypass the engine (PUT, bulk upsert, stock adjustment, delete) fire a ProductChange;
+// once it commits the counter of the product is dropped and seeded again on its next use.
+// checkConsistency() reports what drifts in between.
+@ApplicationScoped
+public class ProductStockReservations {
+
+  private static final Logger LOGGER = Logger.getLogger(ProductStockReservations.class.getName());
+
+  private final ProductRepository productRepository;
+  private final ProductStockJournal journal;
+  private final int stripes;
+  private final Duration flushInterval;
+  private final boolean replayOnStartup;
+
+  // created and replaced under flushLock, so a seed always sees every delta of its predecessor
+  private final Map<Long, ProductCounter> counters = new ConcurrentHashMap<>();
+
+  // a lock rather than a monitor, so contended virtual threads unmount instead of pinning
+  private final ReentrantLock flushLock = new ReentrantLock();
+
+  // sealed epochs not flushed yet, oldest first; guarded by flushLock
+  private final List<Epoch> sealed = new ArrayList<>();
+  private long lastEpoch;
+  private volatile Epoch current;
+
+  private ScheduledExecutorService flusher;
+
+  @Inject
+  public ProductStockReservations(
+      ProductRepository productRepository,
+      @ConfigProperty(
+              name = "product.reservations.journal.directory",
+              defaultValue = "product-reservations-journal")
+          String journalDirectory,
+      @ConfigProperty(
+              name = "product.reservations.journal.segment-records",
+              defaultValue = "1048576")
+          int segmentRecords,
+      @ConfigProperty(name = "product.reservations.stripes", defaultValue = "8") int stripes,
+      @ConfigProperty(name = "product.reservations.flush-interval", defaultValue = "1s")
+          Duration flushInterval,
+      @ConfigProperty(name = "product.reservations.replay-on-startup", defaultValue = "true")
+          boolean replayOnStartup) {
+    this.productRepository = productRepository;
+    this.journal = new ProductStockJournal(Path.of(journalDirectory), segmentRecords);
+    this.stripes = stripes;
+    this.flushInterval = flushInterval;
+    this.replayOnStartup = replayOnStartup;
+  }
+
+  void start(@Observes StartupEvent event) {
+    recover();
+    flusher =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "product-reservations-flush");
+              thread.setDaemon(true);
+              return thread;
+            });
+    flusher.scheduleWithFixedDelay(
+        this::flushQuietly,
+        flushInterval.toMillis(),
+        flushInterval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  void stop(@Observes ShutdownEvent event) {
+    if (flusher != null) {
+      flusher.shutdownNow();
+    }
+    flushQuietly();
+  }
+
+  // applies the segments a previous run left behind and opens the first epoch of this one
+  void recover() {
+    flushLock.lock();
+    try {
+      long flushedEpoch = productRepository.findFlushedEpoch();
+      var epochs = journal.epochs();
+      var replayed = new TreeMap<Long, Long>();
+      lastEpoch = flushedEpoch;
+      for (long epoch : epochs) {
+        if (replayOnStartup && epoch > flushedEpoch) {
+          journal.read(epoch).forEach((id, delta) -> replayed.merge(id, delta, Long::sum));
+        }
+        lastEpoch = Math.max(lastEpoch, epoch);
+      }
+      replayed.values().removeIf(delta -> delta == 0);
+
+      if (!replayed.isEmpty()) {
+        productRepository.applyStockDeltas(replayed, lastEpoch);
+        LOGGER.infof("Replayed unflushed stock reservations of %d product(s)", replayed.size());
+      }
+      epochs.forEach(journal::delete);
+      current = new Epoch(journal.open(++lastEpoch));
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  // false when the product does not have the quantity available
+  public boolean reserve(Long productId, int quantity) {
+    requirePositive(quantity);
+    return withCounter(
+        productId,
+        counter -> {
+          if (!counter.available.tryReserve(quantity)) {
+            return false;
+          }
+          counter.reserved.addAndGet(quantity);
+          record(productId, -quantity);
+          return true;
+        });
+  }
+
+  // false when the quantity is more than the product has reserved
+  public boolean release(Long productId, int quantity) {
+    requirePositive(quantity);
+    return withCounter(
+        productId,
+        counter -> {
+          if (!counter.tryUnreserve(quantity)) {
+            return false;
+          }
+          counter.available.release(quantity);
+          record(productId, quantity);
+          return true;
+        });
+  }
+
+  public long available(Long productId) {
+    return counter(productId).available.available();
+  }
+
+  // the product row was written outside the engine and the write committed
+  void onProductChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProductChange change) {
+    var counter = counters.get(change.productId());
+    if (counter != null) {
+      counter.retire();
+      counters.remove(change.productId(), counter);
+    }
+  }
+
+  public void flush() {
+    flushLock.lock();
+    try {
+      if (!current.segment.isEmpty()) {
+        seal(current);
+      }
+      if (sealed.isEmpty()) {
+        return;
+      }
+
+      var deltas = new TreeMap<Long, Long>();
+      for (Epoch epoch : sealed) {
+        epoch.awaitQuiescence();
+        epoch.deltas.forEach((id, delta) -> deltas.merge(id, delta.sum(), Long::sum));
+      }
+      deltas.values().removeIf(delta -> delta == 0);
+
+      if (!deltas.isEmpty()) {
+        productRepository.applyStockDeltas(deltas, sealed.get(sealed.size() - 1).segment.epoch);
+      }
+      sealed.forEach(epoch -> journal.delete(epoch.segment.epoch));
+      sealed.clear();
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  // Flushes, then compares every counter with the product table plus what is still unflushed.
+  // Reservations racing the check can show up as transient drift; drift that persists across
+  // checks comes from writes that bypassed the engine.
+  public List<ProductStockDrift> checkConsistency() {
+    flushLock.lock();
+    try {
+      flush();
+      var persisted = productRepository.findStocks(new ArrayList<>(counters.keySet()));
+      var drifts = new ArrayList<ProductStockDrift>();
+      counters.forEach(
+          (id, counter) -> {
+            long unflushed = unflushedDelta(id);
+            long available = counter.available.available();
+            Integer stock = persisted.get(id);
+            if (stock == null || stock + unflushed != available) {
+              drifts.add(ProductStockDrift.create(id, stock, unflushed, available));
+            }
+          });
+      return drifts;
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  private boolean withCounter(Long productId, Predicate<ProductCounter> operation) {
+    while (true) {
+      var counter = counter(productId);
+      counter.users.incrementAndGet();
+      try {
+        // the counter was dropped after we read it, move on to its replacement
+        if (counter.retired) {
+          Thread.onSpinWait();
+          continue;
+        }
+        return operation.test(counter);
+      } finally {
+        counter.users.decrementAndGet();
+      }
+    }
+  }
+
+  private ProductCounter counter(Long productId) {
+    var counter = counters.get(productId);
+    return counter != null ? counter : seed(productId);
+  }
+
+  // A dropped counter is only removed once its last user has recorded its delta, and flushes move
+  // deltas into the table under the same lock, so table plus unflushed deltas is exact here.
+  private ProductCounter seed(Long productId) {
+    flushLock.lock();
+    try {
+      var existing = counters.get(productId);
+      if (existing != null) {
+        return existing;
+      }
+      var persisted = productRepository.findStock(productId);
+      if (persisted == null) {
+        throw new IllegalArgumentException("Product with id of " + productId + " does not exist.");
+      }
+      long unflushed = unflushedDelta(productId);
+      var counter =
+          new ProductCounter(
+              new StripedStockCounter(Math.max(persisted.stock + unflushed, 0), stripes),
+              Math.max(persisted.reserved - unflushed, 0));
+      counters.put(productId, counter);
+      return counter;
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  private long unflushedDelta(Long productId) {
+    long unflushed = current.delta(productId);
+    for (Epoch epoch : sealed) {
+      unflushed += epoch.delta(productId);
+    }
+    return unflushed;
+  }
+
+  private void record(Long productId, int delta) {
+    while (true) {
+      var epoch = current;
+      epoch.writers.incrementAndGet();
+      try {
+        // a flush sealed the epoch after we read it, move on to the next one
+        if (epoch.sealed) {
+          continue;
+        }
+        if (epoch.segment.append(productId, delta)) {
+          epoch.deltas.computeIfAbsent(productId, id -> new LongAdder()).add(delta);
+          return;
+        }
+      } finally {
+        epoch.writers.decrementAndGet();
+      }
+      rotate(epoch);
+    }
+  }
+
+  // the segment of the epoch is full: seal it and start the next one, flushed later with the rest
+  private void rotate(Epoch full) {
+    flushLock.lock();
+    try {
+      if (current == full) {
+        seal(full);
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  private void seal(Epoch epoch) {
+    current = new Epoch(journal.open(++lastEpoch));
+    epoch.sealed = true;
+    sealed.add(epoch);
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (RuntimeException ex) {
+      // sealed epochs keep their deltas and journal segments until a flush succeeds
+      LOGGER.errorf(ex, "Failed to flush product stock reservations");
+    }
+  }
+
+  private static void requirePositive(int quantity) {
+    if (quantity <= 0) {
+      throw new IllegalArgumentException("Quantity must be positive");
+    }
+  }
+
+  private static final class ProductCounter {
+
+    private final StripedStockCounter available;
+    private final AtomicLong reserved;
+    private final AtomicInteger users = new AtomicInteger();
+    private volatile boolean retired;
+
+    private ProductCounter(StripedStockCounter available, long reserved) {
+      this.available = available;
+      this.reserved = new AtomicLong(reserved);
+    }
+
+    private boolean tryUnreserve(int quantity) {
+      long value = reserved.get();
+      while (value >= quantity) {
+        long witness = reserved.compareAndExchange(value, value - quantity);
+        if (witness == value) {
+          return true;
+        }
+        value = witness;
+      }
+      return false;
+    }
+
+    // users check the retired flag after registering, so once this drains nobody else gets in
+    private void retire() {
+      retired = true;
+      while (users.get() > 0) {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+      }
+    }
+  }
+
+  private static final class Epoch {
+
+    private final ProductStockJournal.Segment segment;
+    private final Map<Long, LongAdder> deltas = new ConcurrentHashMap<>();
+    private final AtomicInteger writers = new AtomicInteger();
+    private volatile boolean sealed;
+
+    private Epoch(ProductStockJournal.Segment segment) {
+      this.segment = segment;
+    }
+
+    // writers check the sealed flag after registering, so once this drains nobody else gets in
+    private void awaitQuiescence() {
+      while (writers.get() > 0) {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+      }
+    }
+
+    private long delta(Long productId) {
+      var delta = deltas.get(productId);
+      return delta == null ? 0 : delta.sum();
+    }
+  }
+}
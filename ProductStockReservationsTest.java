@@ -0,0 +1,225 @@
+package com.fulfilment.application.monolith.products;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ProductStockReservationsTest {
+
+  @TempDir Path directory;
+
+  private final InMemoryProductRepository repository = new InMemoryProductRepository();
+
+  @Test
+  void shouldNeverOversellUnderConcurrentReservations() throws InterruptedException {
+    repository.stocks.put(1L, 1000);
+    // tiny segments, so epochs rotate while threads are reserving
+    var reservations = reservations(64);
+
+    var reserved = new AtomicInteger();
+    var start = new CountDownLatch(1);
+    var threads = new ArrayList<Thread>();
+    for (int thread = 0; thread < 16; thread++) {
+      var reserver =
+          new Thread(
+              () -> {
+                awaitQuietly(start);
+                for (int attempt = 0; attempt < 200; attempt++) {
+                  if (reservations.reserve(1L, 1)) {
+                    reserved.incrementAndGet();
+                  }
+                }
+              });
+      reserver.start();
+      threads.add(reserver);
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(1000, reserved.get());
+    assertEquals(0, reservations.available(1L));
+    reservations.flush();
+    assertEquals(0, repository.stocks.get(1L));
+  }
+
+  @Test
+  void shouldFlushNetDeltasInOneBatch() {
+    repository.stocks.put(1L, 100);
+    repository.stocks.put(2L, 10);
+    var reservations = reservations(1024);
+
+    assertTrue(reservations.reserve(1L, 5));
+    reservations.release(1L, 2);
+    assertTrue(reservations.reserve(2L, 10));
+    assertFalse(reservations.reserve(2L, 1));
+    assertEquals(100, repository.stocks.get(1L));
+
+    reservations.flush();
+
+    assertEquals(97, repository.stocks.get(1L));
+    assertEquals(0, repository.stocks.get(2L));
+    assertEquals(1, repository.flushes.get());
+
+    // nothing new, nothing to write
+    reservations.flush();
+    assertEquals(1, repository.flushes.get());
+  }
+
+  @Test
+  void shouldReplayUnflushedDeltasAfterACrash() {
+    repository.stocks.put(1L, 10);
+    var crashed = reservations(1024);
+    assertTrue(crashed.reserve(1L, 3));
+    crashed.flush();
+    assertTrue(crashed.reserve(1L, 4));
+    crashed.release(1L, 1);
+
+    // a new engine on the same journal, the crashed one never flushed its last epoch
+    var restarted = reservations(1024);
+
+    assertEquals(4, repository.stocks.get(1L));
+    assertEquals(4, restarted.available(1L));
+
+    // the replayed epoch is gone, a second restart applies nothing
+    reservations(1024);
+    assertEquals(4, repository.stocks.get(1L));
+  }
+
+  @Test
+  void shouldReportDriftAgainstThePersistedStock() {
+    repository.stocks.put(1L, 10);
+    repository.stocks.put(2L, 10);
+    var reservations = reservations(1024);
+    assertTrue(reservations.reserve(1L, 2));
+    assertTrue(reservations.reserve(2L, 2));
+    reservations.flush();
+
+    // a write that bypassed the engine
+    repository.stocks.put(2L, 20);
+
+    var drifts = reservations.checkConsistency();
+
+    assertEquals(1, drifts.size());
+    assertEquals(2L, drifts.get(0).productId);
+    assertEquals(20, drifts.get(0).persistedStock);
+    assertEquals(8, drifts.get(0).available);
+  }
+
+  @Test
+  void shouldNotReleaseMoreThanWasReserved() {
+    repository.stocks.put(1L, 10);
+    var reservations = reservations(1024);
+    assertTrue(reservations.reserve(1L, 3));
+
+    assertFalse(reservations.release(1L, 4));
+    assertTrue(reservations.release(1L, 3));
+    assertFalse(reservations.release(1L, 1));
+    assertEquals(10, reservations.available(1L));
+
+    // the reserved quantity survives a restart through the product table
+    assertTrue(reservations.reserve(1L, 2));
+    reservations.flush();
+    var restarted = reservations(1024);
+    assertFalse(restarted.release(1L, 3));
+    assertTrue(restarted.release(1L, 2));
+  }
+
+  @Test
+  void shouldSeedAgainAfterAWriteOutsideTheEngine() {
+    repository.stocks.put(1L, 10);
+    var reservations = reservations(1024);
+    assertTrue(reservations.reserve(1L, 3));
+
+    // a restock through PUT, the reservation is not flushed yet
+    repository.stocks.put(1L, 20);
+    Product product = new Product("TONSTAD");
+    product.id = 1L;
+    reservations.onProductChanged(ProductChange.written(product));
+
+    assertEquals(17, reservations.available(1L));
+    reservations.flush();
+    assertEquals(17, repository.stocks.get(1L));
+    assertTrue(reservations.checkConsistency().isEmpty());
+  }
+
+  @Test
+  void shouldRejectReservationsOfADeletedProduct() {
+    repository.stocks.put(1L, 10);
+    var reservations = reservations(1024);
+    assertTrue(reservations.reserve(1L, 3));
+
+    repository.stocks.remove(1L);
+    reservations.onProductChanged(ProductChange.deleted(1L));
+
+    assertThrows(IllegalArgumentException.class, () -> reservations.reserve(1L, 1));
+  }
+
+  private ProductStockReservations reservations(int segmentRecords) {
+    var reservations =
+        new ProductStockReservations(
+            repository, directory.toString(), segmentRecords, 4, Duration.ofSeconds(1), true);
+    reservations.recover();
+    return reservations;
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static class InMemoryProductRepository extends ProductRepository {
+
+    private final Map<Long, Integer> stocks = new ConcurrentHashMap<>();
+    private final Map<Long, Long> reserved = new ConcurrentHashMap<>();
+    private final AtomicInteger flushes = new AtomicInteger();
+    private long flushedEpoch;
+
+    @Override
+    public ProductStockRow findStock(Long id) {
+      Integer stock = stocks.get(id);
+      return stock == null ? null : new ProductStockRow(id, stock, reserved.getOrDefault(id, 0L));
+    }
+
+    @Override
+    public Map<Long, Integer> findStocks(Collection<Long> ids) {
+      var result = new HashMap<Long, Integer>();
+      ids.forEach(id -> result.put(id, stocks.get(id)));
+      return result;
+    }
+
+    @Override
+    public long findFlushedEpoch() {
+      return flushedEpoch;
+    }
+
+    @Override
+    public void applyStockDeltas(SortedMap<Long, Long> deltas, long epoch) {
+      deltas.forEach(
+          (id, delta) -> {
+            stocks.computeIfPresent(id, (key, stock) -> (int) Math.max(stock + delta, 0));
+            reserved.merge(id, -delta, (left, right) -> Math.max(left + right, 0));
+          });
+      flushedEpoch = Math.max(flushedEpoch, epoch);
+      flushes.incrementAndGet();
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.fulfilment.application.monolith.products;
+
+// the stock columns of a product as selected by the reservation engine
+public class ProductStockRow {
+
+  static final String SELECT =
+      "select new " + ProductStockRow.class.getName() + "(p.id, p.stock, p.reserved)";
+
+  public final Long productId;
+
+  public final int stock;
+
+  public final long reserved;
+
+  public ProductStockRow(Long productId, int stock, long reserved) {
+    this.productId = productId;
+    this.stock = stock;
+    this.reserved = reserved;
+  }
+}
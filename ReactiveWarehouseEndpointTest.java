@@ -0,0 +1,101 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.notNullValue;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+@TestProfile(ReactiveWarehouseStoreProfile.class)
+public class ReactiveWarehouseEndpointTest {
+
+  private static final String PATH = "warehouse";
+
+  @Test
+  public void testListWarehousesShouldPageWithCursor() {
+    given()
+        .when()
+        .get(PATH + "?limit=1")
+        .then()
+        .statusCode(200)
+        .body("businessUnitCode", contains("MWH.001"))
+        .body("id", contains("1"));
+
+    given()
+        .when()
+        .get(PATH + "?after=1&limit=1")
+        .then()
+        .statusCode(200)
+        .body("businessUnitCode", contains("MWH.012"));
+
+    given().when().get(PATH + "?limit=0").then().statusCode(400);
+  }
+
+  @Test
+  public void testListWarehousesShouldFilterByLocation() {
+    given()
+        .when()
+        .get(PATH + "?location=TILBURG-001")
+        .then()
+        .statusCode(200)
+        .body("businessUnitCode", contains("MWH.023"))
+        .body("capacity", contains(30))
+        .body("stock", contains(27));
+  }
+
+  @Test
+  public void testGetWarehouseByBusinessUnitCode() {
+    given()
+        .when()
+        .get(PATH + "/MWH.012")
+        .then()
+        .statusCode(200)
+        .body("businessUnitCode", equalTo("MWH.012"))
+        .body("location", equalTo("AMSTERDAM-001"))
+        .body("createdAt", notNullValue());
+
+    given().when().get(PATH + "/MWH.404").then().statusCode(404);
+  }
+
+  @Test
+  public void testArchivedWarehouseShouldMoveToHistory() {
+    given()
+        .contentType(ContentType.JSON)
+        .body(
+            """
+            {
+              "businessUnitCode": "MWH.R01",
+              "location": "AMSTERDAM-001",
+              "capacity": 10,
+              "stock": 2
+            }
+            """)
+        .when()
+        .post(PATH)
+        .then()
+        .statusCode(200);
+    given().when().delete(PATH + "/MWH.R01").then().statusCode(204);
+
+    given().when().get(PATH + "/MWH.R01").then().statusCode(404);
+    given()
+        .when()
+        .get(PATH + "?archived=true&location=AMSTERDAM-001")
+        .then()
+        .statusCode(200)
+        .body("businessUnitCode", hasItem("MWH.R01"));
+    given()
+        .when()
+        .get(PATH + "/MWH.R01/history")
+        .then()
+        .statusCode(200)
+        .body("businessUnitCode", contains("MWH.R01"))
+        .body("stock", contains(2))
+        .body("archivedAt[0]", notNullValue());
+  }
+}
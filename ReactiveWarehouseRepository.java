@@ -0,0 +1,112 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.pgclient.PgPool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// Reads warehouses through the reactive postgres client, so request handling never parks a worker
+// thread on a JDBC connection. Hibernate Reactive cannot run next to Hibernate ORM in this Quarkus
+// version, hence plain SQL against the tables mapped by DbWarehouse and DbWarehouseHistory.
+@ApplicationScoped
+@IfBuildProperty(name = "warehouse.store.reactive", stringValue = "true")
+public class ReactiveWarehouseRepository implements ReactiveWarehouseStore {
+
+  private static final String ACTIVE_COLUMNS =
+      "id, businessUnitCode, location, capacity, stock, createdAt, version";
+  private static final String HISTORY_COLUMNS =
+      "id, businessUnitCode, location, capacity, stock, createdAt, archivedAt";
+
+  @Inject PgPool client;
+
+  @Override
+  public Uni<Warehouse> findByBusinessUnitCode(String buCode) {
+    return client
+        .preparedQuery("select " + ACTIVE_COLUMNS + " from warehouse where businessUnitCode = $1")
+        .execute(Tuple.of(buCode))
+        .map(rows -> rows.iterator().hasNext() ? toActiveWarehouse(rows.iterator().next()) : null);
+  }
+
+  @Override
+  public Uni<List<Warehouse>> findPage(String location, boolean archived, Long afterId, int limit) {
+    var sql =
+        new StringBuilder("select ")
+            .append(archived ? HISTORY_COLUMNS : ACTIVE_COLUMNS)
+            .append(archived ? " from warehouse_history" : " from warehouse");
+    var conditions = new ArrayList<String>();
+    var parameters = Tuple.tuple();
+    if (location != null) {
+      parameters.addString(location);
+      conditions.add("location = $" + parameters.size());
+    }
+    if (afterId != null) {
+      parameters.addLong(afterId);
+      conditions.add("id > $" + parameters.size());
+    }
+    if (!conditions.isEmpty()) {
+      sql.append(" where ").append(String.join(" and ", conditions));
+    }
+    parameters.addInteger(limit);
+    sql.append(" order by id limit $").append(parameters.size());
+
+    return client
+        .preparedQuery(sql.toString())
+        .execute(parameters)
+        .map(
+            rows ->
+                toList(
+                    rows,
+                    archived
+                        ? ReactiveWarehouseRepository::toArchivedWarehouse
+                        : ReactiveWarehouseRepository::toActiveWarehouse));
+  }
+
+  @Override
+  public Uni<List<Warehouse>> findHistoryByBusinessUnitCode(String buCode) {
+    return client
+        .preparedQuery(
+            "select "
+                + HISTORY_COLUMNS
+                + " from warehouse_history where businessUnitCode = $1 order by archivedAt desc")
+        .execute(Tuple.of(buCode))
+        .map(rows -> toList(rows, ReactiveWarehouseRepository::toArchivedWarehouse));
+  }
+
+  private static List<Warehouse> toList(RowSet<Row> rows, Function<Row, Warehouse> mapper) {
+    var warehouses = new ArrayList<Warehouse>(rows.size());
+    rows.forEach(row -> warehouses.add(mapper.apply(row)));
+    return warehouses;
+  }
+
+  private static Warehouse toActiveWarehouse(Row row) {
+    var warehouse = toWarehouse(row);
+    warehouse.version = row.getLong(6);
+    return warehouse;
+  }
+
+  private static Warehouse toArchivedWarehouse(Row row) {
+    var warehouse = toWarehouse(row);
+    warehouse.archivedAt = row.getLocalDateTime(6);
+    return warehouse;
+  }
+
+  private static Warehouse toWarehouse(Row row) {
+    var warehouse = new Warehouse();
+    warehouse.id = row.getLong(0);
+    warehouse.businessUnitCode = row.getString(1);
+    warehouse.location = row.getString(2);
+    warehouse.capacity = row.getInteger(3);
+    warehouse.stock = row.getInteger(4);
+    warehouse.createdAt = row.getLocalDateTime(5);
+    return warehouse;
+  }
+}
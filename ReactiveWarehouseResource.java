@@ -0,0 +1,130 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import static com.fulfilment.application.monolith.paging.PageSize.toPageSize;
+import static com.fulfilment.application.monolith.warehouses.adapters.restapi.WarehouseMapper.toWarehouseDomain;
+import static com.fulfilment.application.monolith.warehouses.adapters.restapi.WarehouseMapper.toWarehouseResponse;
+
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseConflictException;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.ArchiveWarehouseUseCase;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.CreateWarehouseUseCase;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.ReplaceWarehouseUseCase;
+import com.warehouse.api.beans.Warehouse;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import java.util.List;
+
+// Serves the warehouse API when warehouse.store.reactive=true, in place of WarehouseResourceImpl.
+// Reads run on the event loop through ReactiveWarehouseStore; writes keep the blocking use cases
+// since they rely on an advisory lock and conditional updates inside one JTA transaction.
+@Path("warehouse")
+@ApplicationScoped
+@Produces("application/json")
+@Consumes("application/json")
+@IfBuildProperty(name = "warehouse.store.reactive", stringValue = "true")
+public class ReactiveWarehouseResource {
+
+  @Inject ReactiveWarehouseStore reactiveWarehouseStore;
+  @Inject WarehouseStore warehouseStore;
+  @Inject CreateWarehouseUseCase createWarehouseUseCase;
+  @Inject ReplaceWarehouseUseCase replaceWarehouseUseCase;
+  @Inject ArchiveWarehouseUseCase archiveWarehouseUseCase;
+
+  @GET
+  public Uni<List<Warehouse>> listAllWarehousesUnits(
+      @QueryParam("location") String location,
+      @QueryParam("archived") @DefaultValue("false") boolean archived,
+      @QueryParam("after") Long after,
+      @QueryParam("limit") Integer limit) {
+    return reactiveWarehouseStore
+        .findPage(location, archived, after, toPageSize(limit))
+        .map(page -> page.stream().map(WarehouseMapper::toWarehouseResponse).toList());
+  }
+
+  @GET
+  @Path("{id}")
+  public Uni<Warehouse> getAWarehouseUnitByID(String id) {
+    return reactiveWarehouseStore
+        .findByBusinessUnitCode(id)
+        .onItem()
+        .ifNull()
+        .failWith(
+            () ->
+                new WebApplicationException(
+                    "Warehouse with businessUnitCode " + id + " does not exist.", 404))
+        .map(WarehouseMapper::toWarehouseResponse);
+  }
+
+  @GET
+  @Path("{businessUnitCode}/history")
+  public Uni<List<Warehouse>> getWarehouseUnitHistory(String businessUnitCode) {
+    return reactiveWarehouseStore
+        .findHistoryByBusinessUnitCode(businessUnitCode)
+        .map(history -> history.stream().map(WarehouseMapper::toWarehouseResponse).toList());
+  }
+
+  @POST
+  @Blocking
+  @Transactional
+  public Warehouse createANewWarehouseUnit(Warehouse data) {
+    try {
+      var warehouse = toWarehouseDomain(data);
+      createWarehouseUseCase.create(warehouse);
+      return toWarehouseResponse(warehouse);
+    } catch (IllegalArgumentException ex) {
+      throw new WebApplicationException(ex.getMessage(), 400);
+    }
+  }
+
+  // no surrounding transaction: every conflict retry runs in a transaction of its own
+  @DELETE
+  @Path("{id}")
+  @Blocking
+  public Response archiveAWarehouseUnitByID(String id) {
+    var warehouse = warehouseStore.findByBusinessUnitCode(id);
+    if (warehouse == null) {
+      throw new WebApplicationException("Warehouse with businessUnitCode " + id + " does not exist.", 404);
+    }
+
+    try {
+      archiveWarehouseUseCase.archive(warehouse);
+    } catch (WarehouseConflictException ex) {
+      throw new WebApplicationException(ex.getMessage(), 409);
+    }
+    return Response.status(204).build();
+  }
+
+  // no surrounding transaction: every conflict retry runs in a transaction of its own
+  @POST
+  @Path("{businessUnitCode}/replacement")
+  @Blocking
+  public Warehouse replaceTheCurrentActiveWarehouse(String businessUnitCode, Warehouse data) {
+    try {
+      var warehouse = toWarehouseDomain(data);
+      warehouse.businessUnitCode = businessUnitCode;
+      replaceWarehouseUseCase.replace(warehouse);
+      return toWarehouseResponse(warehouse);
+    } catch (IllegalArgumentException ex) {
+      throw new WebApplicationException(ex.getMessage(), 400);
+    } catch (IllegalStateException ex) {
+      throw new WebApplicationException(ex.getMessage(), 404);
+    } catch (WarehouseConflictException ex) {
+      throw new WebApplicationException(ex.getMessage(), 409);
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.smallrye.mutiny.Uni;
+import java.util.List;
+
+// non-blocking variant of the WarehouseStore read operations
+public interface ReactiveWarehouseStore {
+
+  Uni<Warehouse> findByBusinessUnitCode(String buCode);
+
+  Uni<List<Warehouse>> findPage(String location, boolean archived, Long afterId, int limit);
+
+  Uni<List<Warehouse>> findHistoryByBusinessUnitCode(String buCode);
+}
@@ -0,0 +1,13 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+import java.util.Map;
+
+// rebuilds the application with warehouse reads served by the reactive adapter
+public class ReactiveWarehouseStoreProfile implements QuarkusTestProfile {
+
+  @Override
+  public Map<String, String> getConfigOverrides() {
+    return Map.of("warehouse.store.reactive", "true");
+  }
+}
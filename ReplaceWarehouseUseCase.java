@@ -1,8 +1,10 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseChangePublisher;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import jakarta.enterprise.context.ApplicationScoped;
 import java.time.LocalDateTime;
@@ -12,10 +14,18 @@ public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
 
   private final WarehouseStore warehouseStore;
   private final LocationResolver locationResolver;
-
-  public ReplaceWarehouseUseCase(WarehouseStore warehouseStore, LocationResolver locationResolver) {
+  private final WarehouseConflictRetry conflictRetry;
+  private final WarehouseChangePublisher changePublisher;
+
+  public ReplaceWarehouseUseCase(
+      WarehouseStore warehouseStore,
+      LocationResolver locationResolver,
+      WarehouseConflictRetry conflictRetry,
+      WarehouseChangePublisher changePublisher) {
     this.warehouseStore = warehouseStore;
     this.locationResolver = locationResolver;
+    this.conflictRetry = conflictRetry;
+    this.changePublisher = changePublisher;
   }
 
   @Override
@@ -30,6 +40,10 @@ public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
       throw new IllegalArgumentException("Warehouse payload is invalid");
     }
 
+    conflictRetry.run("replace", () -> replaceCurrent(newWarehouse));
+  }
+
+  private void replaceCurrent(Warehouse newWarehouse) {
     Warehouse currentWarehouse = warehouseStore.findByBusinessUnitCode(newWarehouse.businessUnitCode);
     if (currentWarehouse == null) {
       throw new IllegalStateException("Warehouse to replace does not exist");
@@ -49,25 +63,16 @@ public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
           "Replacement warehouse capacity cannot accommodate current stock");
     }
 
-    var activeWarehousesExcludingCurrent =
-        warehouseStore.getAll().stream()
-            .filter(warehouse -> warehouse.archivedAt == null)
-            .filter(
-                warehouse ->
-                    !warehouse.businessUnitCode.equals(currentWarehouse.businessUnitCode))
-            .toList();
-
-    var activeAtTargetLocation =
-        activeWarehousesExcludingCurrent.stream()
-            .filter(warehouse -> location.identification.equals(warehouse.location))
-            .toList();
+    warehouseStore.lockLocation(location.identification);
+    var occupancy =
+        warehouseStore.getLocationOccupancy(
+            location.identification, currentWarehouse.businessUnitCode);
 
-    if (activeAtTargetLocation.size() >= location.maxNumberOfWarehouses) {
+    if (occupancy.activeWarehouses >= location.maxNumberOfWarehouses) {
       throw new IllegalArgumentException("Maximum number of warehouses reached for location");
     }
 
-    int currentLocationCapacity = activeAtTargetLocation.stream().mapToInt(warehouse -> warehouse.capacity).sum();
-    int futureCapacity = currentLocationCapacity + newWarehouse.capacity;
+    long futureCapacity = occupancy.totalCapacity + newWarehouse.capacity;
     if (futureCapacity > location.maxCapacity) {
       throw new IllegalArgumentException("Location maximum capacity exceeded");
     }
@@ -79,5 +84,6 @@ public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
     newWarehouse.archivedAt = null;
 
     warehouseStore.create(newWarehouse);
+    changePublisher.publish(WarehouseChange.create(newWarehouse, WarehouseChange.Action.REPLACED));
   }
 }
@@ -1,13 +1,16 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
-import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,12 +19,23 @@ import org.junit.jupiter.api.Test;
 public class ReplaceWarehouseUseCaseTest {
 
 	private InMemoryWarehouseStore warehouseStore;
+	private SimpleMeterRegistry meterRegistry;
+	private List<WarehouseChange> published;
+	private int transactions;
 	private ReplaceWarehouseUseCase useCase;
 
 	@BeforeEach
 	void setUp() {
 		warehouseStore = new InMemoryWarehouseStore();
-		useCase = new ReplaceWarehouseUseCase(warehouseStore, new FixedLocationResolver());
+		meterRegistry = new SimpleMeterRegistry();
+		published = new ArrayList<>();
+		transactions = 0;
+		var conflictRetry = new WarehouseConflictRetry(meterRegistry, work -> {
+			transactions++;
+			work.run();
+		});
+		useCase = new ReplaceWarehouseUseCase(
+				warehouseStore, new FixedLocationResolver(), conflictRetry, published::add);
 
 		Warehouse current = warehouse("MWH.600", "ZWOLLE-001", 20, 7);
 		warehouseStore.create(current);
@@ -52,6 +66,32 @@ public class ReplaceWarehouseUseCaseTest {
 		assertThrows(IllegalStateException.class, () -> useCase.replace(replacement));
 	}
 
+	@Test
+	void shouldRetryWhenCurrentWarehouseIsModifiedConcurrently() {
+		warehouseStore.conflictsToRaise = 2;
+		Warehouse replacement = warehouse("MWH.600", "ZWOLLE-001", 25, 7);
+
+		assertDoesNotThrow(() -> useCase.replace(replacement));
+
+		assertEquals(25, warehouseStore.findByBusinessUnitCode("MWH.600").capacity);
+		// one transaction per attempt, the backoff in between holds no lock
+		assertEquals(3, transactions);
+		assertEquals(2.0, meterRegistry.counter("warehouse.conflicts", "operation", "replace").count());
+		assertEquals(2.0, meterRegistry.counter("warehouse.conflict.retries", "operation", "replace").count());
+		assertEquals(1, published.size());
+		assertEquals(WarehouseChange.Action.REPLACED, published.get(0).action());
+	}
+
+	@Test
+	void shouldGiveUpAfterMaximumConflictRetries() {
+		warehouseStore.conflictsToRaise = WarehouseConflictRetry.MAX_ATTEMPTS;
+		Warehouse replacement = warehouse("MWH.600", "ZWOLLE-001", 25, 7);
+
+		assertThrows(WarehouseConflictException.class, () -> useCase.replace(replacement));
+		assertEquals(20, warehouseStore.findByBusinessUnitCode("MWH.600").capacity);
+		assertEquals(0, published.size());
+	}
+
 	private static Warehouse warehouse(String businessUnitCode, String location, Integer capacity, Integer stock) {
 		Warehouse warehouse = new Warehouse();
 		warehouse.businessUnitCode = businessUnitCode;
@@ -70,57 +110,10 @@ public class ReplaceWarehouseUseCaseTest {
 			}
 			return null;
 		}
-	}
-
-	private static class InMemoryWarehouseStore implements WarehouseStore {
-		private final List<Warehouse> warehouses = new ArrayList<>();
 
 		@Override
-		public List<Warehouse> getAll() {
-			return new ArrayList<>(warehouses);
-		}
-
-		@Override
-		public void create(Warehouse warehouse) {
-			warehouses.add(copy(warehouse));
-		}
-
-		@Override
-		public void update(Warehouse warehouse) {
-			Warehouse existing = findByBusinessUnitCode(warehouse.businessUnitCode);
-			if (existing == null) {
-				return;
-			}
-			existing.location = warehouse.location;
-			existing.capacity = warehouse.capacity;
-			existing.stock = warehouse.stock;
-			existing.createdAt = warehouse.createdAt;
-			existing.archivedAt = warehouse.archivedAt;
-		}
-
-		@Override
-		public void remove(Warehouse warehouse) {
-			warehouses.removeIf(current -> current.businessUnitCode.equals(warehouse.businessUnitCode));
-		}
-
-		@Override
-		public Warehouse findByBusinessUnitCode(String buCode) {
-			return warehouses.stream()
-					.filter(current -> current.archivedAt == null)
-					.filter(current -> current.businessUnitCode.equals(buCode))
-					.findFirst()
-					.orElse(null);
-		}
-
-		private static Warehouse copy(Warehouse warehouse) {
-			Warehouse copy = new Warehouse();
-			copy.businessUnitCode = warehouse.businessUnitCode;
-			copy.location = warehouse.location;
-			copy.capacity = warehouse.capacity;
-			copy.stock = warehouse.stock;
-			copy.createdAt = warehouse.createdAt;
-			copy.archivedAt = warehouse.archivedAt;
-			return copy;
+		public List<Location> getAll() {
+			return List.of(resolveByIdentifier("ZWOLLE-001"));
 		}
 	}
 }
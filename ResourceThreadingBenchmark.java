@@ -0,0 +1,150 @@
+package com.fulfilment.application.monolith;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.quarkus.test.common.http.TestHTTPResource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+// Load benchmark of the blocking store, product and warehouse endpoints, run once per execution
+// mode: the worker pool (PlatformThreadsBenchmarkTest) and virtual threads
+// (VirtualThreadsBenchmarkTest, which needs a Java 21+ runtime). Every client sends its next
+// request as soon as the previous one is answered, so the client count is the number of requests
+// in flight. Skipped unless asked for:
+//
+//   ./mvnw test -Dbenchmark=true -Dtest='*BenchmarkTest' -Dbenchmark.clients=2000
+//
+// Both modes end up waiting on the JDBC pool; raise quarkus.datasource.jdbc.max-size with the
+// client count to compare the threading rather than the pool. Add -Djdk.tracePinnedThreads=short
+// to the surefire argLine to have the JVM report any carrier pinned while a virtual thread blocks.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public abstract class ResourceThreadingBenchmark {
+
+  private static final Logger LOGGER = Logger.getLogger(ResourceThreadingBenchmark.class.getName());
+
+  private static final List<String> PATHS =
+      List.of("store?limit=20", "product?limit=20", "warehouse?limit=20");
+
+  @TestHTTPResource("/")
+  URI root;
+
+  protected abstract String mode();
+
+  @Test
+  public void benchmark() {
+    int clients = Integer.getInteger("benchmark.clients", 1000);
+    int warmUpSeconds = Integer.getInteger("benchmark.warm-up-seconds", 10);
+    int seconds = Integer.getInteger("benchmark.seconds", 30);
+
+    ExecutorService responses = Executors.newFixedThreadPool(8);
+    try {
+      var http =
+          HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(responses).build();
+      load(http, clients, warmUpSeconds);
+      var latencies = load(http, clients, seconds);
+
+      long[] sorted = latencies.sorted();
+      LOGGER.infof(
+          "%s: %d clients, %.0f requests/s, p50 %.1f ms, p99 %.1f ms, %d errors",
+          mode(),
+          clients,
+          (double) sorted.length / seconds,
+          percentile(sorted, 0.50),
+          percentile(sorted, 0.99),
+          latencies.errors);
+      assertTrue(sorted.length > 0);
+    } finally {
+      responses.shutdownNow();
+    }
+  }
+
+  private Latencies load(HttpClient http, int clients, int seconds) {
+    long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+    var perClient = new ArrayList<Latencies>(clients);
+    var running = new CompletableFuture<?>[clients];
+    for (int client = 0; client < clients; client++) {
+      var latencies = new Latencies();
+      perClient.add(latencies);
+      var request =
+          HttpRequest.newBuilder(root.resolve(PATHS.get(client % PATHS.size()))).GET().build();
+      running[client] = send(http, request, until, latencies);
+    }
+    CompletableFuture.allOf(running).join();
+
+    var all = new Latencies();
+    perClient.forEach(all::addAll);
+    return all;
+  }
+
+  // one client: requests one after the other until the deadline
+  private static CompletableFuture<Void> send(
+      HttpClient http, HttpRequest request, long until, Latencies latencies) {
+    long start = System.nanoTime();
+    return http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+        .handle(
+            (response, failure) -> {
+              latencies.add(
+                  System.nanoTime() - start, failure == null && response.statusCode() == 200);
+              return null;
+            })
+        .thenCompose(
+            ignored ->
+                System.nanoTime() < until
+                    ? send(http, request, until, latencies)
+                    : CompletableFuture.completedFuture(null));
+  }
+
+  private static double percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.ceil(percentile * sorted.length) - 1;
+    return sorted[Math.max(index, 0)] / 1_000_000.0;
+  }
+
+  // response times in nanoseconds of one client, or of all of them once merged
+  private static final class Latencies {
+
+    private long[] nanos = new long[256];
+    private int size;
+    private long errors;
+
+    private void add(long elapsed, boolean ok) {
+      if (!ok) {
+        errors++;
+        return;
+      }
+      if (size == nanos.length) {
+        nanos = Arrays.copyOf(nanos, size * 2);
+      }
+      nanos[size++] = elapsed;
+    }
+
+    private void addAll(Latencies other) {
+      if (size + other.size > nanos.length) {
+        nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, size + other.size));
+      }
+      System.arraycopy(other.nanos, 0, nanos, size, other.size);
+      size += other.size;
+      errors += other.errors;
+    }
+
+    private long[] sorted() {
+      long[] sorted = Arrays.copyOf(nanos, size);
+      Arrays.sort(sorted);
+      return sorted;
+    }
+  }
+}
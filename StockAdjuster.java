@@ -0,0 +1,72 @@
+package com.fulfilment.application.monolith.stock;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.util.List;
+
+// Stock updates that bypass the entity: one conditional statement per row, kept coherent with the
+// second level cache of the entity.
+@ApplicationScoped
+public class StockAdjuster {
+
+  @Inject EntityManager entityManager;
+  @Inject TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+  // Adds delta to the stock column of the row in one conditional statement, so concurrent
+  // adjustments cannot lose each other; returns the returned columns of the updated row, or null
+  // when it does not exist or the stock would leave 0..Integer.MAX_VALUE. Must run in a
+  // transaction. The condition adds in bigint: in the integer column type an overflowing sum
+  // fails the statement instead of just not matching.
+  public Object[] adjust(
+      Class<?> entityClass,
+      String table,
+      String stockColumn,
+      Long id,
+      int delta,
+      String... returnedColumns) {
+    List<?> rows =
+        entityManager
+            .createNativeQuery(
+                "update "
+                    + table
+                    + " set "
+                    + stockColumn
+                    + " = "
+                    + stockColumn
+                    + " + :delta where id = :id and cast("
+                    + stockColumn
+                    + " as bigint) + :delta between 0 and "
+                    + Integer.MAX_VALUE
+                    + " returning "
+                    + String.join(", ", returnedColumns))
+            .setParameter("delta", delta)
+            .setParameter("id", id)
+            .getResultList();
+    if (rows.isEmpty()) {
+      return null;
+    }
+    evictAfterCompletion(entityClass, id);
+    return (Object[]) rows.get(0);
+  }
+
+  // Native statements bypass the second level cache. Evicting right away is not enough: until the
+  // transaction commits, a concurrent read still loads the old row and caches it again, so the
+  // entry is evicted once more after completion.
+  public void evictAfterCompletion(Class<?> entityClass, Object id) {
+    var cache = entityManager.getEntityManagerFactory().getCache();
+    cache.evict(entityClass, id);
+    transactionSynchronizationRegistry.registerInterposedSynchronization(
+        new Synchronization() {
+          @Override
+          public void beforeCompletion() {}
+
+          @Override
+          public void afterCompletion(int status) {
+            cache.evict(entityClass, id);
+          }
+        });
+  }
+}
@@ -0,0 +1,15 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+public class StockMovement {
+
+  public String businessUnitCode;
+
+  // units received (positive) or shipped (negative)
+  public Integer delta;
+
+  // stock after the movement, null when it was rejected
+  public Integer stock;
+
+  // reason the movement was rejected, null when it was applied
+  public String error;
+}
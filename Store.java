@@ -1,15 +1,18 @@
 package com.fulfilment.application.monolith.stores;
 
+import com.fulfilment.application.monolith.paging.NameKeyset;
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import java.util.List;
 
 @Entity
 @Cacheable
 public class Store extends PanacheEntity {
 
-  @Column(length = 40, unique = true)
+  // byte ordered, so the unique index serves NameKeyset's prefix range as computed in Java
+  @Column(columnDefinition = "varchar(40) collate \"C\"", unique = true, nullable = false)
   public String name;
 
   public int quantityProductsInStock;
@@ -19,4 +22,14 @@ public class Store extends PanacheEntity {
   public Store(String name) {
     this.name = name;
   }
+
+  public static List<Store> findPage(
+      String afterName, String namePrefix, Integer minStock, Integer maxStock, int limit) {
+    var keyset =
+        new NameKeyset(afterName, namePrefix)
+            .between("quantityProductsInStock", minStock, maxStock);
+    return Store.<Store>find(keyset.query(), NameKeyset.SORT, keyset.parameters())
+        .page(0, limit)
+        .list();
+  }
 }
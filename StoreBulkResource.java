@@ -0,0 +1,108 @@
+package com.fulfilment.application.monolith.stores;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.bulk.ChunkedUpsert;
+import com.fulfilment.application.monolith.bulk.UpsertResult;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+// Creates or updates stores by name, streamed and written in chunks by ChunkedUpsert.
+@Path("store/bulk")
+@ApplicationScoped
+@Produces("application/json")
+public class StoreBulkResource {
+
+  // stores written per transaction
+  static final int CHUNK_SIZE = 500;
+
+  static final int MAX_NAME_LENGTH = 40;
+
+  @Inject ObjectMapper objectMapper;
+  @Inject StoreSyncOutbox storeSyncOutbox;
+  @Inject Event<StoreSyncBatch> storeSyncBatch;
+
+  @POST
+  @Consumes("application/json")
+  public List<UpsertResult> upsertArray(InputStream body) throws IOException {
+    return chunkedUpsert().fromArray(body);
+  }
+
+  @POST
+  @Consumes("application/x-ndjson")
+  public List<UpsertResult> upsertNdjson(InputStream body) throws IOException {
+    return chunkedUpsert().fromNdjson(body);
+  }
+
+  private ChunkedUpsert<Store> chunkedUpsert() {
+    return new ChunkedUpsert<>(
+        objectMapper,
+        Store.class,
+        "Store",
+        store -> store.name,
+        MAX_NAME_LENGTH,
+        CHUNK_SIZE,
+        this::upsertChunk);
+  }
+
+  // one query loads the existing stores of the chunk; new ones are persisted and changed ones
+  // dirty-checked, so Hibernate flushes both as JDBC batches before the outbox is written
+  private List<UpsertResult> upsertChunk(SortedMap<Integer, Store> chunk) {
+    var names = chunk.values().stream().map(store -> store.name).distinct().toList();
+    var storesByName = new HashMap<String, Store>();
+    Store.<Store>list("name in ?1", names).forEach(store -> storesByName.put(store.name, store));
+
+    var results = new ArrayList<UpsertResult>(chunk.size());
+    Map<String, StoreSyncEvent.Action> changes = new LinkedHashMap<>();
+    for (var entry : chunk.entrySet()) {
+      var incoming = entry.getValue();
+      var store = storesByName.get(incoming.name);
+
+      if (store == null) {
+        store = new Store(incoming.name);
+        store.quantityProductsInStock = incoming.quantityProductsInStock;
+        store.persist();
+        storesByName.put(store.name, store);
+        changes.put(store.name, StoreSyncEvent.Action.CREATE);
+        results.add(UpsertResult.written(entry.getKey(), store.name, store.id, true, false));
+      } else if (store.quantityProductsInStock != incoming.quantityProductsInStock) {
+        store.quantityProductsInStock = incoming.quantityProductsInStock;
+        changes.putIfAbsent(store.name, StoreSyncEvent.Action.UPDATE);
+        results.add(UpsertResult.written(entry.getKey(), store.name, store.id, false, true));
+      } else {
+        results.add(UpsertResult.written(entry.getKey(), store.name, store.id, false, false));
+      }
+    }
+
+    // one outbox entry per changed store with its final state, synced as a single batch
+    var changed = new ArrayList<StoreSyncEvent>(changes.size());
+    changes.forEach(
+        (name, action) ->
+            changed.add(StoreSyncEvent.create(storeSnapshot(storesByName.get(name)), action)));
+    var events = storeSyncOutbox.recordAll(changed);
+    if (!events.isEmpty()) {
+      storeSyncBatch.fire(StoreSyncBatch.create(events));
+    }
+    return results;
+  }
+
+  private static Store storeSnapshot(Store source) {
+    Store snapshot = new Store();
+    snapshot.id = source.id;
+    snapshot.name = source.name;
+    snapshot.quantityProductsInStock = source.quantityProductsInStock;
+    return snapshot;
+  }
+}
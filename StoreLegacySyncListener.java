@@ -8,14 +8,15 @@ import jakarta.inject.Inject;
 @ApplicationScoped
 public class StoreLegacySyncListener {
 
-  @Inject LegacyStoreManagerGateway legacyStoreManagerGateway;
+  @Inject StoreSyncDispatcher storeSyncDispatcher;
 
+  // only queues the change, the legacy call happens on the dispatcher's workers
   public void onStoreChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) StoreSyncEvent event) {
-    if (event.action() == StoreSyncEvent.Action.CREATE) {
-      legacyStoreManagerGateway.createStoreOnLegacySystem(event.store());
-      return;
-    }
+    storeSyncDispatcher.dispatch(event);
+  }
 
-    legacyStoreManagerGateway.updateStoreOnLegacySystem(event.store());
+  public void onStoresChanged(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) StoreSyncBatch batch) {
+    storeSyncDispatcher.dispatchAll(batch.events());
   }
 }
@@ -1,8 +1,11 @@
 package com.fulfilment.application.monolith.stores;
 
+import static com.fulfilment.application.monolith.paging.PageSize.toPageSize;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import io.quarkus.panache.common.Sort;
+import com.fulfilment.application.monolith.stock.StockAdjuster;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.enterprise.event.Event;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -15,6 +18,7 @@ import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
@@ -24,17 +28,30 @@ import org.jboss.logging.Logger;
 
 @Path("store")
 @ApplicationScoped
+@RunOnVirtualThread
 @Produces("application/json")
 @Consumes("application/json")
 public class StoreResource {
 
   @Inject Event<StoreSyncEvent> storeSyncEvent;
+  @Inject StoreSyncOutbox storeSyncOutbox;
+  @Inject StockAdjuster stockAdjuster;
 
   private static final Logger LOGGER = Logger.getLogger(StoreResource.class.getName());
 
+  // Stores ordered by name, one page at a time: pass the name of the last store of a page as after
+  // to fetch the next one
   @GET
-  public List<Store> get() {
-    return Store.listAll(Sort.by("name"));
+  public List<Store> get(
+      @QueryParam("after") String after,
+      @QueryParam("namePrefix") String namePrefix,
+      @QueryParam("minStock") Integer minStock,
+      @QueryParam("maxStock") Integer maxStock,
+      @QueryParam("limit") Integer limit) {
+    if (minStock != null && maxStock != null && minStock > maxStock) {
+      throw new WebApplicationException("minStock must not be greater than maxStock", 400);
+    }
+    return Store.findPage(after, namePrefix, minStock, maxStock, toPageSize(limit));
   }
 
   @GET
@@ -53,10 +70,13 @@ public class StoreResource {
     if (store.id != null) {
       throw new WebApplicationException("Id was invalidly set on request.", 422);
     }
+    if (store.name == null) {
+      throw new WebApplicationException("Store Name was not set on request.", 422);
+    }
 
     store.persist();
 
-    storeSyncEvent.fire(StoreSyncEvent.create(storeSnapshot(store), StoreSyncEvent.Action.CREATE));
+    storeSyncEvent.fire(storeSyncOutbox.record(storeSnapshot(store), StoreSyncEvent.Action.CREATE));
 
     return Response.ok(store).status(201).build();
   }
@@ -78,7 +98,7 @@ public class StoreResource {
     entity.name = updatedStore.name;
     entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
 
-    storeSyncEvent.fire(StoreSyncEvent.create(storeSnapshot(entity), StoreSyncEvent.Action.UPDATE));
+    storeSyncEvent.fire(storeSyncOutbox.record(storeSnapshot(entity), StoreSyncEvent.Action.UPDATE));
 
     return entity;
   }
@@ -105,11 +125,47 @@ public class StoreResource {
       entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
     }
 
-    storeSyncEvent.fire(StoreSyncEvent.create(storeSnapshot(entity), StoreSyncEvent.Action.UPDATE));
+    storeSyncEvent.fire(storeSyncOutbox.record(storeSnapshot(entity), StoreSyncEvent.Action.UPDATE));
 
     return entity;
   }
 
+  // Adds delta (negative to take stock out) atomically; the stock stays within 0..Integer.MAX_VALUE
+  @POST
+  @Path("{id}/stock")
+  @Transactional
+  public Store adjustStock(Long id, @QueryParam("delta") Integer delta) {
+    if (delta == null || delta == 0) {
+      throw new WebApplicationException("A non-zero delta must be set on request.", 400);
+    }
+
+    Object[] row =
+        stockAdjuster.adjust(
+            Store.class,
+            "store",
+            "quantityProductsInStock",
+            id,
+            delta,
+            "name",
+            "quantityProductsInStock");
+    if (row == null) {
+      if (Store.findById(id) == null) {
+        throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
+      }
+      throw new WebApplicationException(
+          "Store stock cannot drop below zero or exceed " + Integer.MAX_VALUE + ".", 409);
+    }
+
+    // a detached snapshot, the managed store (if any) still holds the old stock
+    Store adjusted = new Store((String) row[0]);
+    adjusted.id = id;
+    adjusted.quantityProductsInStock = ((Number) row[1]).intValue();
+
+    storeSyncEvent.fire(storeSyncOutbox.record(adjusted, StoreSyncEvent.Action.UPDATE));
+
+    return adjusted;
+  }
+
   @DELETE
   @Path("{id}")
   @Transactional
@@ -119,6 +175,9 @@ public class StoreResource {
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
     entity.delete();
+
+    storeSyncEvent.fire(storeSyncOutbox.record(storeSnapshot(entity), StoreSyncEvent.Action.DELETE));
+
     return Response.status(204).build();
   }
 
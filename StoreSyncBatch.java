@@ -0,0 +1,21 @@
+package com.fulfilment.application.monolith.stores;
+
+import java.util.List;
+
+// store changes committed together by a bulk write, handed to the legacy sync as one unit
+public class StoreSyncBatch {
+
+  private final List<StoreSyncEvent> events;
+
+  private StoreSyncBatch(List<StoreSyncEvent> events) {
+    this.events = events;
+  }
+
+  public static StoreSyncBatch create(List<StoreSyncEvent> events) {
+    return new StoreSyncBatch(List.copyOf(events));
+  }
+
+  public List<StoreSyncEvent> events() {
+    return events;
+  }
+}
@@ -0,0 +1,246 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+// Delivers committed store changes to the legacy system off the request thread. Events are
+// partitioned by store id, so changes to one store keep their order while different stores are
+// synced in parallel. Each partition has a bounded queue; when it is full the committing thread
+// waits up to enqueue-timeout before the event is rejected. Rejected and failed events stay in
+// the outbox and are picked up by StoreSyncOutboxRelay. Updates of the same store that arrive
+// within the coalescing window are delivered as one, carrying the latest snapshot. A bulk write
+// takes one queue entry per partition it touches and is synced with one legacy call per partition.
+@ApplicationScoped
+public class StoreSyncDispatcher {
+
+  private static final Logger LOGGER = Logger.getLogger(StoreSyncDispatcher.class.getName());
+
+  private final LegacyStoreManagerGateway legacyStoreManagerGateway;
+  private final StoreSyncOutbox storeSyncOutbox;
+  private final int batchSize;
+  private final long enqueueTimeoutNanos;
+  private final long coalesceWindowNanos;
+  private final List<BlockingQueue<QueuedEvent>> partitions = new ArrayList<>();
+  private final List<Thread> workers = new ArrayList<>();
+
+  private final Timer lag;
+  private final Counter delivered;
+  private final Counter failed;
+  private final Counter rejected;
+  private final Counter coalesced;
+
+  private volatile boolean running;
+
+  @Inject
+  public StoreSyncDispatcher(
+      LegacyStoreManagerGateway legacyStoreManagerGateway,
+      StoreSyncOutbox storeSyncOutbox,
+      MeterRegistry meterRegistry,
+      @ConfigProperty(name = "store.sync.partitions", defaultValue = "4") int partitionCount,
+      @ConfigProperty(name = "store.sync.queue-capacity", defaultValue = "1000") int queueCapacity,
+      @ConfigProperty(name = "store.sync.batch-size", defaultValue = "50") int batchSize,
+      @ConfigProperty(name = "store.sync.enqueue-timeout", defaultValue = "1s")
+          Duration enqueueTimeout,
+      @ConfigProperty(name = "store.sync.coalesce-window", defaultValue = "50ms")
+          Duration coalesceWindow) {
+    this.legacyStoreManagerGateway = legacyStoreManagerGateway;
+    this.storeSyncOutbox = storeSyncOutbox;
+    this.batchSize = batchSize;
+    this.enqueueTimeoutNanos = enqueueTimeout.toNanos();
+    this.coalesceWindowNanos = coalesceWindow.toNanos();
+    for (int partition = 0; partition < partitionCount; partition++) {
+      BlockingQueue<QueuedEvent> queue = new ArrayBlockingQueue<>(queueCapacity);
+      partitions.add(queue);
+      meterRegistry.gauge(
+          "store.sync.queue.depth",
+          Tags.of("partition", String.valueOf(partition)),
+          queue,
+          BlockingQueue::size);
+    }
+    this.lag = meterRegistry.timer("store.sync.lag");
+    this.delivered = meterRegistry.counter("store.sync.delivered");
+    this.failed = meterRegistry.counter("store.sync.failed");
+    this.rejected = meterRegistry.counter("store.sync.rejected");
+    this.coalesced = meterRegistry.counter("store.sync.coalesced");
+  }
+
+  @PostConstruct
+  void start() {
+    running = true;
+    for (int partition = 0; partition < partitions.size(); partition++) {
+      var queue = partitions.get(partition);
+      var worker = new Thread(() -> drain(queue), "store-sync-" + partition);
+      worker.setDaemon(true);
+      worker.start();
+      workers.add(worker);
+    }
+  }
+
+  @PreDestroy
+  void stop() {
+    running = false;
+    workers.forEach(Thread::interrupt);
+    for (var worker : workers) {
+      try {
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  public void dispatch(StoreSyncEvent event) {
+    enqueue(partition(event.store().id), List.of(event));
+  }
+
+  // the events of each partition travel as one queue entry, keeping the order given per store
+  public void dispatchAll(List<StoreSyncEvent> events) {
+    var byPartition = new LinkedHashMap<Integer, List<StoreSyncEvent>>();
+    for (StoreSyncEvent event : events) {
+      byPartition.computeIfAbsent(partition(event.store().id), p -> new ArrayList<>()).add(event);
+    }
+    byPartition.forEach(this::enqueue);
+  }
+
+  private void enqueue(int partition, List<StoreSyncEvent> events) {
+    var queue = partitions.get(partition);
+    var queued = new QueuedEvent(events, System.nanoTime());
+    try {
+      if (queue.offer(queued, enqueueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+        return;
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+
+    rejected.increment(events.size());
+    LOGGER.errorf(
+        "Legacy sync queue full, leaving %d change(s) of partition %d to the outbox relay",
+        events.size(),
+        partition);
+  }
+
+  private void drain(BlockingQueue<QueuedEvent> queue) {
+    var batch = new ArrayList<QueuedEvent>(batchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        var first = queue.poll(1, TimeUnit.SECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+      } catch (InterruptedException ex) {
+        if (queue.isEmpty()) {
+          return;
+        }
+      }
+      collect(queue, batch);
+      if (!batch.isEmpty()) {
+        deliver(batch);
+        batch.clear();
+      }
+    }
+  }
+
+  // fills the batch with what is queued, waiting up to the coalescing window for more changes so
+  // bursts of updates to one store end up in the same batch
+  private void collect(BlockingQueue<QueuedEvent> queue, List<QueuedEvent> batch) {
+    long deadline = System.nanoTime() + coalesceWindowNanos;
+    while (true) {
+      queue.drainTo(batch, batchSize - batch.size());
+      long remaining = deadline - System.nanoTime();
+      if (batch.size() >= batchSize || remaining <= 0 || !running) {
+        return;
+      }
+      try {
+        var next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+        if (next == null) {
+          return;
+        }
+        batch.add(next);
+      } catch (InterruptedException ex) {
+        return;
+      }
+    }
+  }
+
+  // collapses successive updates of a store into its latest snapshot, in the slot of the first
+  // one; a CREATE or DELETE is never merged and ends the run of updates before it
+  List<StoreSyncEvent> coalesce(List<StoreSyncEvent> events) {
+    var result = new ArrayList<StoreSyncEvent>(events.size());
+    var pendingUpdates = new HashMap<Long, Integer>();
+    for (StoreSyncEvent event : events) {
+      Long storeId = event.store().id;
+      if (event.action() != StoreSyncEvent.Action.UPDATE) {
+        pendingUpdates.remove(storeId);
+        result.add(event);
+        continue;
+      }
+
+      Integer pending = pendingUpdates.get(storeId);
+      if (pending != null) {
+        result.set(pending, event);
+        coalesced.increment();
+      } else {
+        pendingUpdates.put(storeId, result.size());
+        result.add(event);
+      }
+    }
+    return result;
+  }
+
+  private void deliver(List<QueuedEvent> batch) {
+    var queued = batch.stream().flatMap(entry -> entry.events.stream()).toList();
+    var events = coalesce(queued);
+    try {
+      legacyStoreManagerGateway.syncStores(events);
+      delivered.increment(events.size());
+    } catch (RuntimeException ex) {
+      failed.increment(events.size());
+      LOGGER.errorf(ex, "Failed to sync %d store changes to the legacy system", events.size());
+      return;
+    } finally {
+      long now = System.nanoTime();
+      batch.forEach(queued -> lag.record(now - queued.enqueuedAt, TimeUnit.NANOSECONDS));
+    }
+
+    try {
+      // the coalesced updates are settled by the snapshot delivered in their place
+      storeSyncOutbox.acknowledge(queued);
+    } catch (RuntimeException ex) {
+      // harmless beyond a duplicate: the relay delivers the entries again
+      LOGGER.warnf(ex, "Failed to acknowledge %d delivered store changes", events.size());
+    }
+  }
+
+  private int partition(Long storeId) {
+    return (Long.hashCode(storeId) & Integer.MAX_VALUE) % partitions.size();
+  }
+
+  private static final class QueuedEvent {
+    private final List<StoreSyncEvent> events;
+    private final long enqueuedAt;
+
+    private QueuedEvent(List<StoreSyncEvent> events, long enqueuedAt) {
+      this.events = events;
+      this.enqueuedAt = enqueuedAt;
+    }
+  }
+}
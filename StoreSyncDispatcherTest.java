@@ -0,0 +1,179 @@
+package com.fulfilment.application.monolith.stores;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class StoreSyncDispatcherTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private RecordingGateway gateway;
+  private StoreSyncDispatcher dispatcher;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    gateway = new RecordingGateway();
+  }
+
+  @AfterEach
+  void tearDown() {
+    gateway.release.countDown();
+    dispatcher.stop();
+  }
+
+  @Test
+  void shouldDeliverChangesOfEachStoreInOrder() throws InterruptedException {
+    dispatcher = dispatcher(100);
+    for (int quantity = 1; quantity <= 20; quantity++) {
+      dispatcher.dispatch(event(1L, quantity));
+      dispatcher.dispatch(event(2L, quantity));
+    }
+    gateway.release.countDown();
+
+    // updates queued behind each other may be coalesced, but never reordered
+    assertTrue(gateway.awaitQuantity(1L, 20));
+    assertTrue(gateway.awaitQuantity(2L, 20));
+    assertIncreasing(gateway.quantitiesOf(1L));
+    assertIncreasing(gateway.quantitiesOf(2L));
+  }
+
+  @Test
+  void shouldRejectChangesOnceThePartitionQueueIsFull() throws InterruptedException {
+    dispatcher = dispatcher(1);
+    dispatcher.dispatch(event(1L, 1));
+    assertTrue(gateway.started.await(5, TimeUnit.SECONDS));
+
+    dispatcher.dispatch(event(1L, 2));
+    dispatcher.dispatch(event(1L, 3));
+
+    assertEquals(1.0, meterRegistry.counter("store.sync.rejected").count());
+  }
+
+  @Test
+  void shouldSyncABulkWriteWithOneCallPerPartition() throws InterruptedException {
+    dispatcher = dispatcher(100);
+    var events = new ArrayList<StoreSyncEvent>();
+    for (long storeId = 1; storeId <= 10; storeId++) {
+      events.add(event(storeId, 7));
+    }
+
+    // five events per partition, more than the batch size, still travel and sync as one entry
+    dispatcher.dispatchAll(events);
+    gateway.release.countDown();
+
+    for (long storeId = 1; storeId <= 10; storeId++) {
+      assertTrue(gateway.awaitQuantity(storeId, 7));
+    }
+    assertEquals(2, gateway.calls.get());
+  }
+
+  @Test
+  void shouldCoalesceUpdatesOfTheSameStoreWithoutCrossingCreateOrDelete() {
+    dispatcher = dispatcher(100);
+
+    var delivered =
+        dispatcher.coalesce(
+            List.of(
+                event(1L, 1, StoreSyncEvent.Action.CREATE),
+                event(1L, 2, StoreSyncEvent.Action.UPDATE),
+                event(2L, 1, StoreSyncEvent.Action.UPDATE),
+                event(1L, 3, StoreSyncEvent.Action.UPDATE),
+                event(2L, 2, StoreSyncEvent.Action.UPDATE),
+                event(2L, 3, StoreSyncEvent.Action.DELETE),
+                event(1L, 4, StoreSyncEvent.Action.UPDATE)));
+
+    assertEquals(
+        List.of("1:1:CREATE", "1:4:UPDATE", "2:2:UPDATE", "2:3:DELETE"),
+        delivered.stream()
+            .map(
+                event ->
+                    event.store().id
+                        + ":"
+                        + event.store().quantityProductsInStock
+                        + ":"
+                        + event.action())
+            .toList());
+    assertEquals(3.0, meterRegistry.counter("store.sync.coalesced").count());
+  }
+
+  private StoreSyncDispatcher dispatcher(int queueCapacity) {
+    var created =
+        new StoreSyncDispatcher(
+            gateway,
+            new StoreSyncOutbox(),
+            meterRegistry,
+            2,
+            queueCapacity,
+            5,
+            Duration.ofMillis(50),
+            Duration.ZERO);
+    created.start();
+    return created;
+  }
+
+  private static StoreSyncEvent event(Long storeId, int quantity) {
+    return event(storeId, quantity, StoreSyncEvent.Action.UPDATE);
+  }
+
+  private static StoreSyncEvent event(Long storeId, int quantity, StoreSyncEvent.Action action) {
+    Store store = new Store("store-" + storeId);
+    store.id = storeId;
+    store.quantityProductsInStock = quantity;
+    return StoreSyncEvent.create(store, action);
+  }
+
+  private static void assertIncreasing(List<Integer> quantities) {
+    for (int index = 1; index < quantities.size(); index++) {
+      assertTrue(quantities.get(index - 1) < quantities.get(index));
+    }
+  }
+
+  private static class RecordingGateway extends LegacyStoreManagerGateway {
+
+    private final List<Store> delivered = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Override
+    public void syncStores(List<StoreSyncEvent> events) {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      events.forEach(event -> delivered.add(event.store()));
+      calls.incrementAndGet();
+    }
+
+    boolean awaitQuantity(Long storeId, int quantity) throws InterruptedException {
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (!quantitiesOf(storeId).contains(quantity) && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      return quantitiesOf(storeId).contains(quantity);
+    }
+
+    List<Integer> quantitiesOf(Long storeId) {
+      synchronized (delivered) {
+        return delivered.stream()
+            .filter(store -> store.id.equals(storeId))
+            .map(store -> store.quantityProductsInStock)
+            .toList();
+      }
+    }
+  }
+}
@@ -4,19 +4,32 @@ public class StoreSyncEvent {
 
   public enum Action {
     CREATE,
-    UPDATE
+    UPDATE,
+    DELETE
   }
 
   private final Store store;
   private final Action action;
+  private final Long outboxId;
+  private final Long snapshotId;
 
-  private StoreSyncEvent(Store store, Action action) {
+  private StoreSyncEvent(Store store, Action action, Long outboxId, Long snapshotId) {
     this.store = store;
     this.action = action;
+    this.outboxId = outboxId;
+    this.snapshotId = snapshotId;
   }
 
   public static StoreSyncEvent create(Store store, Action action) {
-    return new StoreSyncEvent(store, action);
+    return new StoreSyncEvent(store, action, null, null);
+  }
+
+  public static StoreSyncEvent create(Store store, Action action, Long outboxId) {
+    return new StoreSyncEvent(store, action, outboxId, outboxId);
+  }
+
+  public static StoreSyncEvent create(Store store, Action action, Long outboxId, Long snapshotId) {
+    return new StoreSyncEvent(store, action, outboxId, snapshotId);
   }
 
   public Store store() {
@@ -26,4 +39,15 @@ public class StoreSyncEvent {
   public Action action() {
     return action;
   }
+
+  // outbox entry backing this event, null when the event was not recorded in the outbox
+  public Long outboxId() {
+    return outboxId;
+  }
+
+  // outbox entry that recorded the store as carried here; newer than outboxId when an older
+  // entry is relayed with a later snapshot. Outbox ids of a store grow in commit order.
+  public Long snapshotId() {
+    return snapshotId;
+  }
 }
@@ -0,0 +1,221 @@
+package com.fulfilment.application.monolith.stores;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+// Append-only journal the legacy system reads store changes from (see StoreSyncJournalReader).
+// Records go into preallocated, memory-mapped segment files; a record that does not fit in the
+// current segment starts the next one. Appends only copy into the mapping, the fsync is shared:
+// whoever forces the segment makes every record appended before it durable, so concurrent
+// appenders pay for one fsync per group instead of one per record. Segments before the position
+// the reader committed (StoreSyncJournalReader.commit()) are deleted as the journal rolls.
+//
+// Record layout: int payload length, int CRC32 of the payload, payload. A zero length marks the
+// unwritten tail of a segment. Payload: long sequence, long outbox id of the snapshot (0 when not
+// from the outbox), byte action, long store id, int quantity, int name length (-1 for null),
+// UTF-8 name.
+@ApplicationScoped
+public class StoreSyncJournal {
+
+  static final int HEADER_BYTES = 8;
+  private static final int FIXED_PAYLOAD_BYTES = 8 + 8 + 1 + 8 + 4 + 4;
+
+  @ConfigProperty(name = "store.sync.journal.directory", defaultValue = "store-sync-journal")
+  String directoryName;
+
+  @ConfigProperty(name = "store.sync.journal.segment-size", defaultValue = "67108864")
+  int segmentSize;
+
+  private Path directory;
+
+  private final ReentrantLock appendLock = new ReentrantLock();
+  private final ReentrantLock syncLock = new ReentrantLock();
+
+  private long segmentIndex;
+  private MappedByteBuffer segment;
+  private long lastSequence;
+
+  // positions are segment index * segment size + offset, so they grow across segments
+  private long appendedPosition;
+  private long syncedPosition;
+
+  public StoreSyncJournal() {}
+
+  StoreSyncJournal(Path directory, int segmentSize) {
+    this.directoryName = directory.toString();
+    this.segmentSize = segmentSize;
+    open();
+  }
+
+  @PostConstruct
+  void open() {
+    directory = Path.of(directoryName);
+    try {
+      Files.createDirectories(directory);
+      long latest = StoreSyncJournalReader.latestSegment(directory);
+      segmentIndex = Math.max(latest, 0);
+      segment = map(segmentIndex);
+
+      // resume after the last complete record left by a previous run
+      var reader = new StoreSyncJournalReader(directory, segmentIndex, 0);
+      lastSequence = lastSequence(reader);
+      segment.position(reader.offset());
+      if (lastSequence == 0 && segmentIndex > 0) {
+        // the previous run rolled and stopped before writing to the new segment
+        lastSequence = lastSequence(new StoreSyncJournalReader(directory, segmentIndex - 1, 0));
+      }
+      appendedPosition = position();
+      syncedPosition = appendedPosition;
+      deleteReadSegments();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static long lastSequence(StoreSyncJournalReader reader) {
+    long sequence = 0;
+    List<StoreSyncJournalReader.Record> records;
+    while (!(records = reader.read(1024)).isEmpty()) {
+      sequence = records.get(records.size() - 1).sequence;
+    }
+    return sequence;
+  }
+
+  public void append(List<StoreSyncEvent> events) {
+    long position;
+    appendLock.lock();
+    try {
+      for (StoreSyncEvent event : events) {
+        write(event);
+      }
+      position = appendedPosition;
+    } finally {
+      appendLock.unlock();
+    }
+    sync(position);
+  }
+
+  private void write(StoreSyncEvent event) {
+    byte[] name =
+        event.store().name == null ? null : event.store().name.getBytes(StandardCharsets.UTF_8);
+    int payloadLength = FIXED_PAYLOAD_BYTES + (name == null ? 0 : name.length);
+    if (HEADER_BYTES + payloadLength > segmentSize) {
+      throw new IllegalArgumentException("Store sync record exceeds the journal segment size");
+    }
+    if (segment.remaining() < HEADER_BYTES + payloadLength) {
+      roll();
+    }
+
+    var payload = ByteBuffer.allocate(payloadLength);
+    payload.putLong(++lastSequence);
+    payload.putLong(event.snapshotId() == null ? 0 : event.snapshotId());
+    payload.put((byte) event.action().ordinal());
+    payload.putLong(event.store().id);
+    payload.putInt(event.store().quantityProductsInStock);
+    payload.putInt(name == null ? -1 : name.length);
+    if (name != null) {
+      payload.put(name);
+    }
+
+    var crc = new CRC32();
+    crc.update(payload.array());
+
+    // the length is written last, so a reader never sees a half written record as complete
+    int start = segment.position();
+    segment.position(start + 4);
+    segment.putInt((int) crc.getValue());
+    segment.put(payload.array());
+    segment.putInt(start, payloadLength);
+    appendedPosition = position();
+  }
+
+  private void roll() {
+    // everything in the finished segment must be durable before readers move past it
+    segment.force();
+    segmentIndex++;
+    try {
+      // the finished segment is unmapped once its buffer is garbage collected
+      segment = map(segmentIndex);
+      deleteReadSegments();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    appendedPosition = position();
+  }
+
+  // Deletes the segments before the one the reader has committed to. The segment before the
+  // current one is always kept, a restart recovers the last sequence from it while the current
+  // one is still empty.
+  private void deleteReadSegments() throws IOException {
+    long keepFrom =
+        Math.min(StoreSyncJournalReader.committedSegment(directory), segmentIndex - 1);
+    long first = StoreSyncJournalReader.firstSegment(directory);
+    for (long index = Math.max(first, 0); index < keepFrom; index++) {
+      Files.deleteIfExists(StoreSyncJournalReader.segmentFile(directory, index));
+    }
+  }
+
+  private void sync(long position) {
+    syncLock.lock();
+    try {
+      if (syncedPosition >= position) {
+        // forced by another appender of the same group
+        return;
+      }
+
+      long target;
+      MappedByteBuffer current;
+      appendLock.lock();
+      try {
+        target = appendedPosition;
+        current = segment;
+      } finally {
+        appendLock.unlock();
+      }
+      current.force();
+      syncedPosition = target;
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  private long position() {
+    return segmentIndex * segmentSize + segment.position();
+  }
+
+  private MappedByteBuffer map(long index) throws IOException {
+    Path file = StoreSyncJournalReader.segmentFile(directory, index);
+    if (!Files.exists(file)) {
+      // grown to the full size under another name first, a reader that sees the segment exist
+      // never maps it shorter
+      Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+      try (var channel =
+          FileChannel.open(
+              temporary,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.TRUNCATE_EXISTING,
+              StandardOpenOption.WRITE)) {
+        channel.write(ByteBuffer.allocate(1), segmentSize - 1);
+      }
+      Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+    try (var channel =
+        FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+  }
+}
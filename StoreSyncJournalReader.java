@@ -0,0 +1,267 @@
+package com.fulfilment.application.monolith.stores;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+import java.util.zip.CRC32;
+
+// Reads the journal written by StoreSyncJournal, for the legacy side. A reader is a cursor: poll
+// returns the records appended after the previous poll, and commit() stores the position to
+// continue from after a restart (see committed(directory)).
+//
+// The dispatcher and the outbox relay append concurrently, so a relayed record can land after a
+// newer change of its store. Records carry the outbox id of their snapshot, which grows per store
+// in commit order, and poll drops a record older than one already read for its store. The newest
+// id per store is committed along with the position.
+public class StoreSyncJournalReader {
+
+  private static final String COMMITTED_FILE = "reader.committed";
+
+  private final Path directory;
+  private long segmentIndex;
+  private int offset;
+  private MappedByteBuffer segment;
+  // store id -> outbox id of the newest snapshot read
+  private final Map<Long, Long> newestSnapshots = new HashMap<>();
+
+  public StoreSyncJournalReader(Path directory) {
+    this(directory, Math.max(firstSegment(directory), 0), 0);
+  }
+
+  public StoreSyncJournalReader(Path directory, long segmentIndex, int offset) {
+    this.directory = directory;
+    this.segmentIndex = segmentIndex;
+    this.offset = offset;
+  }
+
+  // a reader at the position last committed in the directory, or at the start of the journal
+  public static StoreSyncJournalReader committed(Path directory) {
+    List<String> lines = committedLines(directory);
+    if (lines == null) {
+      return new StoreSyncJournalReader(directory);
+    }
+    long[] position = parse(lines.get(0));
+    var reader = new StoreSyncJournalReader(directory, position[0], (int) position[1]);
+    for (String line : lines.subList(1, lines.size())) {
+      long[] snapshot = parse(line);
+      reader.newestSnapshots.put(snapshot[0], snapshot[1]);
+    }
+    return reader;
+  }
+
+  public long segment() {
+    return segmentIndex;
+  }
+
+  public int offset() {
+    return offset;
+  }
+
+  // records the current position and the newest snapshot read per store, to resume from with
+  // committed(directory); the journal deletes the segments before the position
+  public void commit() {
+    Path file = directory.resolve(COMMITTED_FILE);
+    Path temporary = directory.resolve(COMMITTED_FILE + ".tmp");
+    try {
+      var lines = new ArrayList<String>(newestSnapshots.size() + 1);
+      lines.add(segmentIndex + ":" + offset);
+      newestSnapshots.forEach((storeId, outboxId) -> lines.add(storeId + ":" + outboxId));
+      Files.write(temporary, lines);
+      Files.move(
+          temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  // up to max complete records, an empty list when the reader has caught up with the writer
+  public List<Record> poll(int max) {
+    var records = new ArrayList<Record>();
+    while (records.size() < max) {
+      var read = read(max - records.size());
+      if (read.isEmpty()) {
+        break;
+      }
+      for (Record record : read) {
+        if (!superseded(record)) {
+          records.add(record);
+        }
+      }
+    }
+    return records;
+  }
+
+  // a newer snapshot of the store was read already, delivering this one would roll it back
+  private boolean superseded(Record record) {
+    if (record.outboxId == 0) {
+      return false;
+    }
+    Long newest = newestSnapshots.get(record.storeId);
+    if (newest != null && newest > record.outboxId) {
+      return true;
+    }
+    newestSnapshots.put(record.storeId, record.outboxId);
+    return false;
+  }
+
+  // up to max complete records, stale snapshots included
+  List<Record> read(int max) {
+    var records = new ArrayList<Record>();
+    while (records.size() < max) {
+      if (segment == null && !mapSegment()) {
+        break;
+      }
+
+      var record = readRecord();
+      if (record != null) {
+        records.add(record);
+        continue;
+      }
+
+      // the writer only starts a new segment once this one is full and forced, but it may have
+      // filled the rest of it since the read above, so read once more before moving on
+      if (!Files.exists(segmentFile(directory, segmentIndex + 1))) {
+        break;
+      }
+      record = readRecord();
+      if (record != null) {
+        records.add(record);
+        continue;
+      }
+      segmentIndex++;
+      offset = 0;
+      segment = null;
+    }
+    return records;
+  }
+
+  private Record readRecord() {
+    if (segment.capacity() - offset < StoreSyncJournal.HEADER_BYTES) {
+      return null;
+    }
+    int length = segment.getInt(offset);
+    if (length <= 0 || segment.capacity() - offset - StoreSyncJournal.HEADER_BYTES < length) {
+      return null;
+    }
+
+    byte[] payload = new byte[length];
+    segment.get(offset + StoreSyncJournal.HEADER_BYTES, payload);
+    var crc = new CRC32();
+    crc.update(payload);
+    if ((int) crc.getValue() != segment.getInt(offset + 4)) {
+      // torn write left by a crash, nothing after it was ever acknowledged
+      return null;
+    }
+
+    var buffer = ByteBuffer.wrap(payload);
+    var record = new Record();
+    record.sequence = buffer.getLong();
+    record.outboxId = buffer.getLong();
+    record.action = StoreSyncEvent.Action.values()[buffer.get()];
+    record.storeId = buffer.getLong();
+    record.quantityProductsInStock = buffer.getInt();
+    int nameLength = buffer.getInt();
+    if (nameLength >= 0) {
+      byte[] name = new byte[nameLength];
+      buffer.get(name);
+      record.storeName = new String(name, StandardCharsets.UTF_8);
+    }
+
+    offset += StoreSyncJournal.HEADER_BYTES + length;
+    return record;
+  }
+
+  private boolean mapSegment() {
+    Path file = segmentFile(directory, segmentIndex);
+    if (!Files.exists(file)) {
+      return false;
+    }
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return true;
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  static Path segmentFile(Path directory, long index) {
+    return directory.resolve(String.format("segment-%010d.journal", index));
+  }
+
+  // segment of the committed reader position, -1 when no reader has committed yet
+  static long committedSegment(Path directory) {
+    long[] position = committedPosition(directory);
+    return position == null ? -1 : position[0];
+  }
+
+  private static long[] committedPosition(Path directory) {
+    List<String> lines = committedLines(directory);
+    return lines == null ? null : parse(lines.get(0));
+  }
+
+  // the position, then one line per store with the outbox id of its newest snapshot read
+  private static List<String> committedLines(Path directory) {
+    Path file = directory.resolve(COMMITTED_FILE);
+    if (!Files.exists(file)) {
+      return null;
+    }
+    try {
+      return Files.readAllLines(file);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static long[] parse(String line) {
+    String[] parts = line.trim().split(":");
+    return new long[] {Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+  }
+
+  static long latestSegment(Path directory) {
+    return segmentIndexes(directory).max().orElse(-1);
+  }
+
+  static long firstSegment(Path directory) {
+    return segmentIndexes(directory).min().orElse(-1);
+  }
+
+  private static LongStream segmentIndexes(Path directory) {
+    if (!Files.isDirectory(directory)) {
+      return LongStream.empty();
+    }
+    try (var files = Files.list(directory)) {
+      long[] indexes =
+          files
+              .map(file -> file.getFileName().toString())
+              .filter(name -> name.startsWith("segment-") && name.endsWith(".journal"))
+              .mapToLong(name -> Long.parseLong(name.substring(8, name.length() - 8)))
+              .toArray();
+      return LongStream.of(indexes);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  public static class Record {
+    // increases by one per record over the whole journal
+    public long sequence;
+    // outbox entry that recorded the snapshot, 0 when the change did not go through the outbox
+    public long outboxId;
+    public StoreSyncEvent.Action action;
+    public long storeId;
+    public String storeName;
+    public int quantityProductsInStock;
+  }
+}
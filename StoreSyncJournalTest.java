@@ -0,0 +1,180 @@
+package com.fulfilment.application.monolith.stores;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StoreSyncJournalTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void shouldReadBackAppendedChangesInOrder() {
+    var journal = new StoreSyncJournal(directory, 4096);
+    journal.append(List.of(event(1L, "TONSTAD", 10, StoreSyncEvent.Action.CREATE)));
+    journal.append(
+        List.of(
+            event(1L, "TONSTAD", 12, StoreSyncEvent.Action.UPDATE),
+            event(2L, null, 0, StoreSyncEvent.Action.DELETE)));
+
+    var records = new StoreSyncJournalReader(directory).poll(10);
+
+    assertEquals(3, records.size());
+    assertEquals(1, records.get(0).sequence);
+    assertEquals("TONSTAD", records.get(0).storeName);
+    assertEquals(12, records.get(1).quantityProductsInStock);
+    assertEquals(StoreSyncEvent.Action.DELETE, records.get(2).action);
+    assertNull(records.get(2).storeName);
+  }
+
+  @Test
+  void shouldRollSegmentsAndResumeAfterRestart() {
+    var journal = new StoreSyncJournal(directory, 256);
+    for (int quantity = 1; quantity <= 20; quantity++) {
+      journal.append(List.of(event(1L, "KALLAX", quantity, StoreSyncEvent.Action.UPDATE)));
+    }
+
+    var reader = new StoreSyncJournalReader(directory);
+    var records = new ArrayList<>(reader.poll(15));
+    assertTrue(reader.segment() > 0);
+
+    var reopened = new StoreSyncJournal(directory, 256);
+    reopened.append(List.of(event(1L, "KALLAX", 21, StoreSyncEvent.Action.UPDATE)));
+
+    var resumed = new StoreSyncJournalReader(directory, reader.segment(), reader.offset());
+    records.addAll(resumed.poll(100));
+    assertEquals(21, records.size());
+    for (int index = 0; index < records.size(); index++) {
+      assertEquals(index + 1, records.get(index).sequence);
+      assertEquals(index + 1, records.get(index).quantityProductsInStock);
+    }
+  }
+
+  @Test
+  void shouldContinueTheSequenceWhenTheLatestSegmentIsEmpty() throws IOException {
+    var journal = new StoreSyncJournal(directory, 256);
+    for (int quantity = 1; quantity <= 10; quantity++) {
+      journal.append(List.of(event(1L, "KALLAX", quantity, StoreSyncEvent.Action.UPDATE)));
+    }
+
+    // as left by a run that rolled and stopped before writing to the new segment
+    long latest = StoreSyncJournalReader.latestSegment(directory);
+    var empty = StoreSyncJournalReader.segmentFile(directory, latest + 1);
+    try (var channel =
+        FileChannel.open(empty, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.allocate(256));
+    }
+
+    var reopened = new StoreSyncJournal(directory, 256);
+    reopened.append(List.of(event(1L, "KALLAX", 11, StoreSyncEvent.Action.UPDATE)));
+
+    var records = new StoreSyncJournalReader(directory, latest + 1, 0).poll(10);
+    assertEquals(1, records.size());
+    assertEquals(11, records.get(0).sequence);
+  }
+
+  @Test
+  void shouldDeleteSegmentsBehindTheCommittedReader() {
+    var journal = new StoreSyncJournal(directory, 256);
+    for (int quantity = 1; quantity <= 10; quantity++) {
+      journal.append(List.of(event(1L, "KALLAX", quantity, StoreSyncEvent.Action.UPDATE)));
+    }
+    assertEquals(0, StoreSyncJournalReader.firstSegment(directory));
+
+    var reader = StoreSyncJournalReader.committed(directory);
+    reader.poll(100);
+    reader.commit();
+    for (int quantity = 11; quantity <= 20; quantity++) {
+      journal.append(List.of(event(1L, "KALLAX", quantity, StoreSyncEvent.Action.UPDATE)));
+    }
+
+    assertEquals(
+        Math.min(reader.segment(), StoreSyncJournalReader.latestSegment(directory) - 1),
+        StoreSyncJournalReader.firstSegment(directory));
+    var resumed = StoreSyncJournalReader.committed(directory).poll(100);
+    assertEquals(10, resumed.size());
+    assertEquals(11, resumed.get(0).sequence);
+  }
+
+  @Test
+  void shouldNotSkipRecordsWrittenWhileTheReaderCrossesASegment() throws InterruptedException {
+    var journal = new StoreSyncJournal(directory, 256);
+    int count = 2000;
+    var writer =
+        new Thread(
+            () -> {
+              for (int quantity = 1; quantity <= count; quantity++) {
+                journal.append(
+                    List.of(event(1L, "KALLAX", quantity, StoreSyncEvent.Action.UPDATE)));
+              }
+            });
+    writer.start();
+
+    var reader = new StoreSyncJournalReader(directory);
+    var records = new ArrayList<StoreSyncJournalReader.Record>();
+    long deadline = System.nanoTime() + 30_000_000_000L;
+    while (records.size() < count && System.nanoTime() < deadline) {
+      records.addAll(reader.poll(count));
+      if (!writer.isAlive() && records.size() < count) {
+        // everything is written, a last poll must find the rest
+        records.addAll(reader.poll(count));
+        break;
+      }
+    }
+    writer.join();
+
+    assertEquals(count, records.size());
+    for (int index = 0; index < records.size(); index++) {
+      assertEquals(index + 1, records.get(index).sequence);
+    }
+  }
+
+  @Test
+  void shouldDropSnapshotsOlderThanOneAlreadyRead() {
+    var journal = new StoreSyncJournal(directory, 4096);
+    // the dispatcher delivers entry 12 before the relay gets entry 11 of the same store in
+    journal.append(List.of(event(1L, "KALLAX", 12, StoreSyncEvent.Action.UPDATE, 12L)));
+    journal.append(List.of(event(1L, "KALLAX", 11, StoreSyncEvent.Action.UPDATE, 11L)));
+    journal.append(List.of(event(2L, "BESTA", 10, StoreSyncEvent.Action.UPDATE, 10L)));
+
+    var reader = StoreSyncJournalReader.committed(directory);
+    var records = reader.poll(10);
+    assertEquals(List.of(12, 10), quantities(records));
+    reader.commit();
+
+    // a restart remembers the newest snapshots read before it
+    journal.append(List.of(event(1L, "KALLAX", 11, StoreSyncEvent.Action.UPDATE, 11L)));
+    journal.append(List.of(event(1L, "KALLAX", 13, StoreSyncEvent.Action.UPDATE, 13L)));
+    assertEquals(List.of(13), quantities(StoreSyncJournalReader.committed(directory).poll(10)));
+  }
+
+  private static List<Integer> quantities(List<StoreSyncJournalReader.Record> records) {
+    return records.stream().map(record -> record.quantityProductsInStock).toList();
+  }
+
+  private static StoreSyncEvent event(
+      Long id, String name, int quantity, StoreSyncEvent.Action action, Long outboxId) {
+    Store store = new Store(name);
+    store.id = id;
+    store.quantityProductsInStock = quantity;
+    return StoreSyncEvent.create(store, action, outboxId);
+  }
+
+  private static StoreSyncEvent event(
+      Long id, String name, int quantity, StoreSyncEvent.Action action) {
+    Store store = new Store(name);
+    store.id = id;
+    store.quantityProductsInStock = quantity;
+    return StoreSyncEvent.create(store, action);
+  }
+}
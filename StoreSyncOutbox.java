@@ -0,0 +1,127 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@ApplicationScoped
+public class StoreSyncOutbox {
+
+  // must run inside the transaction that changes the store, after the change, so the change and
+  // its sync commit or roll back together
+  public StoreSyncEvent record(Store store, StoreSyncEvent.Action action) {
+    return recordAll(List.of(StoreSyncEvent.create(store, action))).get(0);
+  }
+
+  // The pending store writes are flushed before the outbox ids are drawn, so each store row is
+  // locked by then: a concurrent change of the same store waits for this transaction and draws a
+  // higher id. That keeps the outbox ids of a store in commit order, which the journal reader
+  // relies on to drop stale snapshots.
+  public List<StoreSyncEvent> recordAll(List<StoreSyncEvent> changes) {
+    StoreSyncOutboxEntry.flush();
+    var recorded = new ArrayList<StoreSyncEvent>(changes.size());
+    for (StoreSyncEvent change : changes) {
+      var entry = new StoreSyncOutboxEntry();
+      entry.storeId = change.store().id;
+      entry.storeName = change.store().name;
+      entry.quantityProductsInStock = change.store().quantityProductsInStock;
+      entry.action = change.action();
+      entry.createdAt = LocalDateTime.now();
+      entry.persist();
+      recorded.add(StoreSyncEvent.create(change.store(), change.action(), entry.id));
+    }
+    return recorded;
+  }
+
+  // entries not delivered within the grace period, oldest first; rows are locked until the
+  // surrounding transaction ends and skipped by other relays meanwhile
+  public List<StoreSyncOutboxEntry> claimUndelivered(LocalDateTime createdBefore, int limit) {
+    @SuppressWarnings("unchecked")
+    List<StoreSyncOutboxEntry> entries =
+        StoreSyncOutboxEntry.getEntityManager()
+            .createNativeQuery(
+                "select * from store_sync_outbox where createdAt < :createdBefore"
+                    + " order by id limit :limit for update skip locked",
+                StoreSyncOutboxEntry.class)
+            .setParameter("createdBefore", createdBefore)
+            .setParameter("limit", limit)
+            .getResultList();
+    return entries;
+  }
+
+  // newest outbox entry of each of the given stores, claimed or not
+  public Map<Long, StoreSyncOutboxEntry> findLatest(Collection<Long> storeIds) {
+    var latest = new HashMap<Long, StoreSyncOutboxEntry>();
+    if (storeIds.isEmpty()) {
+      return latest;
+    }
+    StoreSyncOutboxEntry.<StoreSyncOutboxEntry>list(
+            "from StoreSyncOutboxEntry e where e.storeId in ?1 and e.id ="
+                + " (select max(o.id) from StoreSyncOutboxEntry o where o.storeId = e.storeId)",
+            storeIds)
+        .forEach(entry -> latest.put(entry.storeId, entry));
+    return latest;
+  }
+
+  // Deletes the entries of the delivered events, which must include any event that was coalesced
+  // into a delivered one. Events carry the full store, so a delivered change also settles the
+  // older updates of its store. An older create is kept, the legacy system has not seen it yet,
+  // but takes over the delivered snapshot so relaying it later cannot roll the store back.
+  public void acknowledge(List<StoreSyncEvent> delivered) {
+    var outboxIds = new ArrayList<Long>();
+    var latestByStore = new HashMap<Long, StoreSyncEvent>();
+    for (StoreSyncEvent event : delivered) {
+      if (event.outboxId() != null) {
+        outboxIds.add(event.outboxId());
+        latestByStore.merge(
+            event.store().id,
+            event,
+            (current, other) -> current.outboxId() > other.outboxId() ? current : other);
+      }
+    }
+    if (outboxIds.isEmpty()) {
+      return;
+    }
+
+    QuarkusTransaction.joiningExisting()
+        .run(
+            () -> {
+              StoreSyncOutboxEntry.delete("id in ?1", outboxIds);
+              latestByStore.values().forEach(StoreSyncOutbox::settleOlderEntries);
+            });
+  }
+
+  // entries superseded by a newer entry of their store, dropped without being delivered
+  public void discard(List<Long> outboxIds) {
+    if (!outboxIds.isEmpty()) {
+      QuarkusTransaction.joiningExisting()
+          .run(() -> StoreSyncOutboxEntry.delete("id in ?1", outboxIds));
+    }
+  }
+
+  private static void settleOlderEntries(StoreSyncEvent latest) {
+    Long storeId = latest.store().id;
+    if (latest.action() == StoreSyncEvent.Action.DELETE) {
+      // nothing older matters once the store is gone
+      StoreSyncOutboxEntry.delete("storeId = ?1 and id < ?2", storeId, latest.outboxId());
+      return;
+    }
+
+    StoreSyncOutboxEntry.delete(
+        "storeId = ?1 and id < ?2 and action = ?3",
+        storeId,
+        latest.outboxId(),
+        StoreSyncEvent.Action.UPDATE);
+    StoreSyncOutboxEntry.update(
+        "storeName = ?1, quantityProductsInStock = ?2 where storeId = ?3 and id < ?4",
+        latest.store().name,
+        latest.store().quantityProductsInStock,
+        storeId,
+        latest.outboxId());
+  }
+}
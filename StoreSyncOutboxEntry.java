@@ -0,0 +1,43 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+// a store change still to be delivered to the legacy system, written in the transaction that made
+// the change and deleted once it has been delivered or superseded by a later change of its store
+@Entity
+@Table(
+    name = "store_sync_outbox",
+    indexes = {@Index(name = "ix_store_sync_outbox_store_id", columnList = "storeId, id")})
+public class StoreSyncOutboxEntry extends PanacheEntity {
+
+  public Long storeId;
+
+  public String storeName;
+
+  public int quantityProductsInStock;
+
+  @Enumerated(EnumType.STRING)
+  public StoreSyncEvent.Action action;
+
+  public LocalDateTime createdAt;
+
+  public StoreSyncOutboxEntry() {}
+
+  public StoreSyncEvent toEvent() {
+    return toEvent(this);
+  }
+
+  // the change of this entry carrying the store as recorded by the given, newer entry
+  public StoreSyncEvent toEvent(StoreSyncOutboxEntry snapshot) {
+    Store store = new Store(snapshot.storeName);
+    store.id = storeId;
+    store.quantityProductsInStock = snapshot.quantityProductsInStock;
+    return StoreSyncEvent.create(store, action, id, snapshot.id);
+  }
+}
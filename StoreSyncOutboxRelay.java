@@ -0,0 +1,120 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+// Recovery path of the legacy store sync. Committed changes are normally delivered right away by
+// StoreSyncDispatcher; whatever is still in the outbox after the grace period (the process died,
+// the queue was full or the delivery failed) is delivered here in batches, at least once. An
+// update with a newer entry of its store is dropped and a create takes the newest snapshot. That
+// does not order the relay against the dispatcher: a change committed after findLatest can reach
+// the journal before the relayed entry. Records carry the outbox id of their snapshot, and
+// StoreSyncJournalReader drops one older than a snapshot of its store it has already read.
+@ApplicationScoped
+public class StoreSyncOutboxRelay {
+
+  private static final Logger LOGGER = Logger.getLogger(StoreSyncOutboxRelay.class.getName());
+
+  @Inject StoreSyncOutbox storeSyncOutbox;
+  @Inject LegacyStoreManagerGateway legacyStoreManagerGateway;
+  @Inject MeterRegistry meterRegistry;
+
+  @ConfigProperty(name = "store.sync.outbox.poll-interval", defaultValue = "5s")
+  Duration pollInterval;
+
+  @ConfigProperty(name = "store.sync.outbox.grace-period", defaultValue = "30s")
+  Duration gracePeriod;
+
+  @ConfigProperty(name = "store.sync.outbox.batch-size", defaultValue = "100")
+  int batchSize;
+
+  private ScheduledExecutorService relay;
+  private Counter relayed;
+  private Counter failures;
+
+  void start(@Observes StartupEvent event) {
+    relayed = meterRegistry.counter("store.sync.outbox.relayed");
+    failures = meterRegistry.counter("store.sync.outbox.failures");
+    relay =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "store-sync-outbox-relay");
+              thread.setDaemon(true);
+              return thread;
+            });
+    relay.scheduleWithFixedDelay(
+        this::relayPending,
+        pollInterval.toMillis(),
+        pollInterval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  void stop(@Observes ShutdownEvent event) {
+    if (relay != null) {
+      relay.shutdownNow();
+    }
+  }
+
+  void relayPending() {
+    try {
+      while (QuarkusTransaction.requiringNew().call(this::relayBatch) == batchSize) {
+        // a full batch, there may be more waiting
+      }
+    } catch (RuntimeException ex) {
+      // the batch rolled back and stays in the outbox for the next run
+      failures.increment();
+      LOGGER.errorf(ex, "Failed to relay store changes from the outbox");
+    }
+  }
+
+  private int relayBatch() {
+    var entries =
+        storeSyncOutbox.claimUndelivered(LocalDateTime.now().minus(gracePeriod), batchSize);
+    if (entries.isEmpty()) {
+      return 0;
+    }
+
+    var latest =
+        storeSyncOutbox.findLatest(
+            entries.stream().map(entry -> entry.storeId).collect(Collectors.toSet()));
+    var events = new ArrayList<StoreSyncEvent>();
+    var superseded = new ArrayList<Long>();
+    for (var entry : entries) {
+      var newest = latest.getOrDefault(entry.storeId, entry);
+      if (newest.id.equals(entry.id)) {
+        events.add(entry.toEvent());
+      } else if (entry.action == StoreSyncEvent.Action.UPDATE) {
+        // the newer entry carries a later snapshot, relaying this one could only roll it back
+        superseded.add(entry.id);
+      } else if (entry.action == StoreSyncEvent.Action.CREATE
+          && newest.action == StoreSyncEvent.Action.UPDATE) {
+        events.add(entry.toEvent(newest));
+      } else {
+        events.add(entry.toEvent());
+      }
+    }
+
+    if (!events.isEmpty()) {
+      legacyStoreManagerGateway.syncStores(events);
+      storeSyncOutbox.acknowledge(events);
+    }
+    storeSyncOutbox.discard(superseded);
+    relayed.increment(events.size());
+    return entries.size();
+  }
+}
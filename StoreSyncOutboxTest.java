@@ -0,0 +1,82 @@
+package com.fulfilment.application.monolith.stores;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.quarkus.test.TestTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+@TestTransaction
+public class StoreSyncOutboxTest {
+
+  @Inject StoreSyncOutbox storeSyncOutbox;
+
+  @Test
+  public void testUndeliveredChangesAreClaimedOldestFirst() {
+    var created = storeSyncOutbox.record(store(-1L, 10), StoreSyncEvent.Action.CREATE);
+    var deleted = storeSyncOutbox.record(store(-1L, 10), StoreSyncEvent.Action.DELETE);
+
+    var claimed = claimTestEntries();
+
+    assertEquals(List.of(created.outboxId(), deleted.outboxId()), ids(claimed));
+    assertEquals(StoreSyncEvent.Action.DELETE, claimed.get(1).toEvent().action());
+  }
+
+  @Test
+  public void testDeliveredChangeSettlesOlderUpdatesOfTheSameStore() {
+    storeSyncOutbox.record(store(-1L, 10), StoreSyncEvent.Action.UPDATE);
+    var latest = storeSyncOutbox.record(store(-1L, 20), StoreSyncEvent.Action.UPDATE);
+    var otherStore = storeSyncOutbox.record(store(-2L, 5), StoreSyncEvent.Action.CREATE);
+
+    storeSyncOutbox.acknowledge(List.of(latest));
+
+    assertEquals(List.of(otherStore.outboxId()), ids(claimTestEntries()));
+  }
+
+  @Test
+  public void testUndeliveredCreateSurvivesALaterDeliveredUpdateWithItsSnapshot() {
+    var created = storeSyncOutbox.record(store(-1L, 10), StoreSyncEvent.Action.CREATE);
+    var updated = storeSyncOutbox.record(store(-1L, 20), StoreSyncEvent.Action.UPDATE);
+
+    storeSyncOutbox.acknowledge(List.of(updated));
+    StoreSyncOutboxEntry.getEntityManager().clear();
+
+    var claimed = claimTestEntries();
+    assertEquals(List.of(created.outboxId()), ids(claimed));
+    assertEquals(20, claimed.get(0).toEvent().store().quantityProductsInStock);
+  }
+
+  @Test
+  public void testLatestEntryOfEachStoreIsFound() {
+    storeSyncOutbox.record(store(-1L, 10), StoreSyncEvent.Action.CREATE);
+    var latest = storeSyncOutbox.record(store(-1L, 20), StoreSyncEvent.Action.UPDATE);
+    var otherStore = storeSyncOutbox.record(store(-2L, 5), StoreSyncEvent.Action.CREATE);
+
+    var found = storeSyncOutbox.findLatest(List.of(-1L, -2L));
+
+    assertEquals(latest.outboxId(), found.get(-1L).id);
+    assertEquals(otherStore.outboxId(), found.get(-2L).id);
+  }
+
+  // entries of the negative store ids used here, other tests may have left real ones behind
+  private List<StoreSyncOutboxEntry> claimTestEntries() {
+    return storeSyncOutbox.claimUndelivered(LocalDateTime.now().plusSeconds(1), 1000).stream()
+        .filter(entry -> entry.storeId < 0)
+        .toList();
+  }
+
+  private static List<Long> ids(List<StoreSyncOutboxEntry> entries) {
+    return entries.stream().map(entry -> entry.id).toList();
+  }
+
+  private static Store store(Long id, int quantity) {
+    Store store = new Store("outbox-" + id);
+    store.id = id;
+    store.quantityProductsInStock = quantity;
+    return store;
+  }
+}
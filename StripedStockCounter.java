@@ -0,0 +1,74 @@
+package com.fulfilment.application.monolith.products;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Available stock of one product spread over a few stripes, so concurrent reservations of a hot
+// product mostly CAS different cache lines. A reservation is served from a random home stripe and
+// only sweeps the others when that one runs short; no stripe ever goes below zero, so the product
+// cannot be oversold. Near zero a reservation racing a sweep may fail although the sum would have
+// covered it, never the other way round.
+final class StripedStockCounter {
+
+  // stripes sit 64 bytes apart to avoid false sharing
+  private static final int PADDING = 8;
+
+  private final AtomicLongArray cells;
+  private final int stripes;
+
+  StripedStockCounter(long available, int stripes) {
+    this.stripes = stripes;
+    this.cells = new AtomicLongArray(stripes * PADDING);
+    for (int stripe = 0; stripe < stripes; stripe++) {
+      cells.set(stripe * PADDING, available / stripes + (stripe < available % stripes ? 1 : 0));
+    }
+  }
+
+  boolean tryReserve(int quantity) {
+    int home = ThreadLocalRandom.current().nextInt(stripes);
+    long value = cells.get(home * PADDING);
+    while (value >= quantity) {
+      long witness = cells.compareAndExchange(home * PADDING, value, value - quantity);
+      if (witness == value) {
+        return true;
+      }
+      value = witness;
+    }
+
+    // gather what the stripes hold, handing it back to the home stripe when it is not enough
+    long taken = 0;
+    for (int offset = 0; offset < stripes && taken < quantity; offset++) {
+      taken += take((home + offset) % stripes, quantity - taken);
+    }
+    if (taken < quantity) {
+      cells.addAndGet(home * PADDING, taken);
+      return false;
+    }
+    return true;
+  }
+
+  void release(int quantity) {
+    cells.addAndGet(ThreadLocalRandom.current().nextInt(stripes) * PADDING, quantity);
+  }
+
+  long available() {
+    long sum = 0;
+    for (int stripe = 0; stripe < stripes; stripe++) {
+      sum += cells.get(stripe * PADDING);
+    }
+    return sum;
+  }
+
+  private long take(int stripe, long wanted) {
+    long value = cells.get(stripe * PADDING);
+    while (value > 0) {
+      long taken = Math.min(value, wanted);
+      long witness = cells.compareAndExchange(stripe * PADDING, value, value - taken);
+      if (witness == value) {
+        return taken;
+      }
+      value = witness;
+    }
+    return 0;
+  }
+}
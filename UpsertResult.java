@@ -0,0 +1,38 @@
+package com.fulfilment.application.monolith.bulk;
+
+public class UpsertResult {
+
+  // position of the element in the payload (1-based): the line for NDJSON, the element for arrays
+  public int line;
+
+  public String name;
+
+  public Long id;
+
+  public boolean created;
+
+  // false for an existing element the payload did not change
+  public boolean updated;
+
+  // reason the element was rejected, null when it was written
+  public String error;
+
+  public static UpsertResult written(
+      int line, String name, Long id, boolean created, boolean updated) {
+    var result = new UpsertResult();
+    result.line = line;
+    result.name = name;
+    result.id = id;
+    result.created = created;
+    result.updated = updated;
+    return result;
+  }
+
+  public static UpsertResult rejected(int line, String name, String error) {
+    var result = new UpsertResult();
+    result.line = line;
+    result.name = name;
+    result.error = error;
+    return result;
+  }
+}
@@ -0,0 +1,14 @@
+package com.fulfilment.application.monolith;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+
+@QuarkusTest
+@TestProfile(VirtualThreadsProfile.class)
+public class VirtualThreadsBenchmarkTest extends ResourceThreadingBenchmark {
+
+  @Override
+  protected String mode() {
+    return "virtual threads";
+  }
+}
@@ -0,0 +1,13 @@
+package com.fulfilment.application.monolith;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+import java.util.Map;
+
+// runs the @RunOnVirtualThread endpoints on virtual threads, which the default config leaves off
+public class VirtualThreadsProfile implements QuarkusTestProfile {
+
+  @Override
+  public Map<String, String> getConfigOverrides() {
+    return Map.of("quarkus.virtual-threads.enabled", "true");
+  }
+}
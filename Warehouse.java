@@ -4,6 +4,9 @@ import java.time.LocalDateTime;
 
 public class Warehouse {
 
+  // persistence identifier of this warehouse version, also used as listing cursor
+  public Long id;
+
   // unique identifier
   public String businessUnitCode;
 
@@ -16,4 +19,7 @@ public class Warehouse {
   public LocalDateTime createdAt;
 
   public LocalDateTime archivedAt;
+
+  // optimistic locking version of the active warehouse as it was read
+  public Long version;
 }
@@ -0,0 +1,203 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+// Bounded read-through cache of active warehouses by business unit code. Entries are evicted on
+// size (least recently used) and on TTL, and invalidated on write both immediately and again once
+// the writing transaction completes, so no reader sees the pre-commit version after commit.
+//
+// Lookups only touch a concurrent map. The lock guards the access order used for eviction: a put
+// waits for it, a hit records its access only when the lock is free, so under contention the
+// order is approximate rather than a point every read queues on.
+@ApplicationScoped
+public class WarehouseCache {
+
+  private static final int GENERATION_STRIPES = 1024;
+  private static final Object DIRTY_KEYS = new Object();
+
+  private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+  private final int maxSize;
+  private final long ttlNanos;
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  // business unit codes, least recently used first; guarded by lock
+  private final LinkedHashMap<String, Boolean> accessOrder = new LinkedHashMap<>(16, 0.75f, true);
+  private final ReentrantLock lock = new ReentrantLock();
+
+  // bumped on every invalidation; a load only populates the cache if its stripe did not move
+  private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter evictions;
+
+  @Inject
+  public WarehouseCache(
+      MeterRegistry meterRegistry,
+      TransactionSynchronizationRegistry transactionSynchronizationRegistry,
+      @ConfigProperty(name = "warehouse.cache.max-size", defaultValue = "10000") int maxSize,
+      @ConfigProperty(name = "warehouse.cache.ttl", defaultValue = "60s") Duration ttl) {
+    this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+    this.maxSize = maxSize;
+    this.ttlNanos = ttl.toNanos();
+    this.hits = meterRegistry.counter("warehouse.cache.requests", "result", "hit");
+    this.misses = meterRegistry.counter("warehouse.cache.requests", "result", "miss");
+    this.evictions = meterRegistry.counter("warehouse.cache.evictions");
+    meterRegistry.gauge("warehouse.cache.size", entries, Map::size);
+  }
+
+  public Warehouse get(String buCode, Function<String, Warehouse> loader) {
+    if (dirtyKeys(false).contains(buCode)) {
+      // written by the current transaction, the cache must neither serve nor see this version
+      misses.increment();
+      return loader.apply(buCode);
+    }
+
+    long now = System.nanoTime();
+    Entry entry = entries.get(buCode);
+    if (entry != null && entry.expiresAt - now > 0) {
+      hits.increment();
+      touch(buCode);
+      return copy(entry.warehouse);
+    }
+    if (entry != null && entries.remove(buCode, entry)) {
+      evictions.increment();
+    }
+
+    long generation = generations.get(stripe(buCode));
+    misses.increment();
+    Warehouse loaded = loader.apply(buCode);
+    if (loaded != null) {
+      put(buCode, new Entry(copy(loaded), now + ttlNanos), generation);
+    }
+    return loaded;
+  }
+
+  public void invalidate(String buCode) {
+    evict(buCode);
+    if (transactionSynchronizationRegistry.getTransactionKey() != null) {
+      dirtyKeys(true).add(buCode);
+    }
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  // An invalidation bumps the generation before it removes the entry and the put checks the
+  // generation inside compute, so a load that started before the invalidation is either refused
+  // or removed by it.
+  private void put(String buCode, Entry entry, long generation) {
+    var stored =
+        entries.compute(
+            buCode,
+            (key, current) -> generations.get(stripe(key)) == generation ? entry : current);
+    if (stored != entry) {
+      return;
+    }
+
+    lock.lock();
+    try {
+      accessOrder.put(buCode, Boolean.TRUE);
+      var eldest = accessOrder.keySet().iterator();
+      while (accessOrder.size() > maxSize) {
+        String evicted = eldest.next();
+        eldest.remove();
+        if (entries.remove(evicted) != null) {
+          evictions.increment();
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void touch(String buCode) {
+    if (lock.tryLock()) {
+      try {
+        accessOrder.get(buCode);
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  private void evict(String buCode) {
+    generations.incrementAndGet(stripe(buCode));
+    entries.remove(buCode);
+    lock.lock();
+    try {
+      accessOrder.remove(buCode);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private Set<String> dirtyKeys(boolean create) {
+    if (transactionSynchronizationRegistry.getTransactionKey() == null) {
+      return Set.of();
+    }
+
+    var dirtyKeys = (Set<String>) transactionSynchronizationRegistry.getResource(DIRTY_KEYS);
+    if (dirtyKeys == null && create) {
+      Set<String> keys = new HashSet<>();
+      transactionSynchronizationRegistry.putResource(DIRTY_KEYS, keys);
+      transactionSynchronizationRegistry.registerInterposedSynchronization(
+          new Synchronization() {
+            @Override
+            public void beforeCompletion() {}
+
+            @Override
+            public void afterCompletion(int status) {
+              keys.forEach(WarehouseCache.this::evict);
+            }
+          });
+      return keys;
+    }
+    return dirtyKeys == null ? Set.of() : dirtyKeys;
+  }
+
+  private static int stripe(String buCode) {
+    return (buCode.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+  }
+
+  private static Warehouse copy(Warehouse source) {
+    var copy = new Warehouse();
+    copy.id = source.id;
+    copy.businessUnitCode = source.businessUnitCode;
+    copy.location = source.location;
+    copy.capacity = source.capacity;
+    copy.stock = source.stock;
+    copy.createdAt = source.createdAt;
+    copy.archivedAt = source.archivedAt;
+    copy.version = source.version;
+    return copy;
+  }
+
+  private static final class Entry {
+    private final Warehouse warehouse;
+    private final long expiresAt;
+
+    private Entry(Warehouse warehouse, long expiresAt) {
+      this.warehouse = warehouse;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -0,0 +1,233 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class WarehouseCacheTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private FakeTransactionSynchronizationRegistry transactions;
+  private Map<String, Warehouse> database;
+  private int loads;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    transactions = new FakeTransactionSynchronizationRegistry();
+    database = new HashMap<>();
+    database.put("MWH.001", warehouse("MWH.001", 100));
+    database.put("MWH.012", warehouse("MWH.012", 50));
+    loads = 0;
+  }
+
+  @Test
+  void shouldServeRepeatedLookupsFromCache() {
+    var cache = cache(10, Duration.ofMinutes(1));
+
+    var first = cache.get("MWH.001", loader());
+    var second = cache.get("MWH.001", loader());
+
+    assertEquals(1, loads);
+    assertNotSame(first, second);
+    assertEquals(1.0, meterRegistry.counter("warehouse.cache.requests", "result", "hit").count());
+    assertEquals(1.0, meterRegistry.counter("warehouse.cache.requests", "result", "miss").count());
+  }
+
+  @Test
+  void shouldNotCacheMissingWarehouses() {
+    var cache = cache(10, Duration.ofMinutes(1));
+
+    assertNull(cache.get("MWH.999", loader()));
+    assertNull(cache.get("MWH.999", loader()));
+
+    assertEquals(2, loads);
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedEntryWhenFull() {
+    var cache = cache(1, Duration.ofMinutes(1));
+
+    cache.get("MWH.001", loader());
+    cache.get("MWH.012", loader());
+    cache.get("MWH.001", loader());
+
+    assertEquals(3, loads);
+    assertEquals(2.0, meterRegistry.counter("warehouse.cache.evictions").count());
+  }
+
+  @Test
+  void shouldReloadExpiredEntries() {
+    var cache = cache(10, Duration.ZERO);
+
+    cache.get("MWH.001", loader());
+    cache.get("MWH.001", loader());
+
+    assertEquals(2, loads);
+  }
+
+  @Test
+  void shouldBypassCacheForKeysWrittenInCurrentTransactionAndEvictAfterCommit() {
+    var cache = cache(10, Duration.ofMinutes(1));
+    cache.get("MWH.001", loader());
+
+    transactions.begin();
+    database.put("MWH.001", warehouse("MWH.001", 150));
+    cache.invalidate("MWH.001");
+
+    assertEquals(150, cache.get("MWH.001", loader()).capacity);
+    assertEquals(150, cache.get("MWH.001", loader()).capacity);
+    assertEquals(3, loads);
+
+    transactions.commit();
+
+    assertEquals(150, cache.get("MWH.001", loader()).capacity);
+    assertEquals(150, cache.get("MWH.001", loader()).capacity);
+    assertEquals(4, loads);
+  }
+
+  @Test
+  void shouldNotCacheALoadThatRacedAnInvalidation() {
+    var cache = cache(10, Duration.ofMinutes(1));
+
+    cache.get(
+        "MWH.001",
+        buCode -> {
+          var stale = loader().apply(buCode);
+          database.put("MWH.001", warehouse("MWH.001", 150));
+          cache.invalidate("MWH.001");
+          return stale;
+        });
+
+    assertEquals(150, cache.get("MWH.001", loader()).capacity);
+    assertEquals(2, loads);
+  }
+
+  @Test
+  void shouldStayBoundedUnderConcurrentLookups() throws Exception {
+    var cache = cache(8, Duration.ofMinutes(1));
+    for (int i = 0; i < 32; i++) {
+      String buCode = "MWH.1" + i;
+      database.put(buCode, warehouse(buCode, i));
+    }
+    Function<String, Warehouse> loader = database::get;
+
+    var executor = Executors.newFixedThreadPool(8);
+    try {
+      var readers = new ArrayList<Future<?>>();
+      for (int t = 0; t < 8; t++) {
+        int offset = t;
+        readers.add(
+            executor.submit(
+                () -> {
+                  for (int i = 0; i < 5_000; i++) {
+                    String buCode = "MWH.1" + ((i + offset) % 32);
+                    assertEquals(buCode, cache.get(buCode, loader).businessUnitCode);
+                  }
+                }));
+      }
+      for (var reader : readers) {
+        reader.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    double requests =
+        meterRegistry.counter("warehouse.cache.requests", "result", "hit").count()
+            + meterRegistry.counter("warehouse.cache.requests", "result", "miss").count();
+    assertEquals(40_000.0, requests);
+    assertTrue(cache.size() <= 8);
+  }
+
+  private WarehouseCache cache(int maxSize, Duration ttl) {
+    return new WarehouseCache(meterRegistry, transactions, maxSize, ttl);
+  }
+
+  private Function<String, Warehouse> loader() {
+    return buCode -> {
+      loads++;
+      return database.get(buCode);
+    };
+  }
+
+  private static Warehouse warehouse(String buCode, Integer capacity) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = buCode;
+    warehouse.location = "ZWOLLE-001";
+    warehouse.capacity = capacity;
+    warehouse.stock = 0;
+    return warehouse;
+  }
+
+  private static class FakeTransactionSynchronizationRegistry
+      implements TransactionSynchronizationRegistry {
+
+    private Object transactionKey;
+    private final Map<Object, Object> resources = new HashMap<>();
+    private final List<Synchronization> synchronizations = new ArrayList<>();
+
+    void begin() {
+      transactionKey = new Object();
+    }
+
+    void commit() {
+      synchronizations.forEach(Synchronization::beforeCompletion);
+      transactionKey = null;
+      synchronizations.forEach(sync -> sync.afterCompletion(Status.STATUS_COMMITTED));
+      synchronizations.clear();
+      resources.clear();
+    }
+
+    @Override
+    public Object getTransactionKey() {
+      return transactionKey;
+    }
+
+    @Override
+    public void putResource(Object key, Object value) {
+      resources.put(key, value);
+    }
+
+    @Override
+    public Object getResource(Object key) {
+      return resources.get(key);
+    }
+
+    @Override
+    public void registerInterposedSynchronization(Synchronization sync) {
+      synchronizations.add(sync);
+    }
+
+    @Override
+    public int getTransactionStatus() {
+      return transactionKey == null ? Status.STATUS_NO_TRANSACTION : Status.STATUS_ACTIVE;
+    }
+
+    @Override
+    public void setRollbackOnly() {}
+
+    @Override
+    public boolean getRollbackOnly() {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+public class WarehouseChange {
+
+  public enum Action {
+    CREATED,
+    REPLACED,
+    ARCHIVED
+  }
+
+  private final Warehouse warehouse;
+  private final Action action;
+
+  private WarehouseChange(Warehouse warehouse, Action action) {
+    this.warehouse = warehouse;
+    this.action = action;
+  }
+
+  public static WarehouseChange create(Warehouse warehouse, Action action) {
+    return new WarehouseChange(warehouse, action);
+  }
+
+  // the warehouse as it was written: the new version for CREATED and REPLACED, the archived one
+  // for ARCHIVED
+  public Warehouse warehouse() {
+    return warehouse;
+  }
+
+  public Action action() {
+    return action;
+  }
+}
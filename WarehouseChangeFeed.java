@@ -0,0 +1,228 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseChangePublisher;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+// Sequences committed warehouse changes and fans them out to subscribers. The most recent changes
+// are retained so a reconnecting subscriber can resume after the last event it received. Event ids
+// combine a random id of this run with the sequence, so an id from before a restart is recognised
+// even once the new sequence has passed it.
+@ApplicationScoped
+public class WarehouseChangeFeed implements WarehouseChangePublisher {
+
+  private final Event<WarehouseChange> events;
+  private final int retained;
+  private final int subscriberBuffer;
+  private final String run;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Deque<SequencedChange> history = new ArrayDeque<>();
+  private final List<Subscriber> subscribers = new ArrayList<>();
+  private long lastSequence;
+
+  @Inject
+  public WarehouseChangeFeed(
+      Event<WarehouseChange> events,
+      @ConfigProperty(name = "warehouse.changes.retained", defaultValue = "10000") int retained,
+      @ConfigProperty(name = "warehouse.changes.subscriber-buffer", defaultValue = "1000")
+          int subscriberBuffer) {
+    this(events, retained, subscriberBuffer, UUID.randomUUID().toString());
+  }
+
+  WarehouseChangeFeed(
+      Event<WarehouseChange> events, int retained, int subscriberBuffer, String run) {
+    this.events = events;
+    this.retained = retained;
+    this.subscriberBuffer = subscriberBuffer;
+    this.run = run;
+  }
+
+  @Override
+  public void publish(WarehouseChange change) {
+    events.fire(change);
+  }
+
+  void onWarehouseChanged(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) WarehouseChange change) {
+    List<Subscriber> targets;
+    lock.lock();
+    try {
+      var sequenced = new SequencedChange(run, ++lastSequence, change);
+      history.addLast(sequenced);
+      if (history.size() > retained) {
+        history.removeFirst();
+      }
+      targets = new ArrayList<>(subscribers);
+      // queued under the lock so every subscriber sees the sequence in order; a subscriber that
+      // cannot take it any more is dropped and failed below
+      subscribers.removeIf(subscriber -> !subscriber.offer(sequenced));
+    } finally {
+      lock.unlock();
+    }
+    // a slow subscriber must not hold up publishers or other subscribers while holding the lock
+    targets.forEach(Subscriber::drain);
+  }
+
+  // Retained changes after the given event id (null for live changes only) followed by live ones,
+  // or null when the changes after it can no longer be replayed: they are not retained any more,
+  // or the id was handed out before a restart. The check and the registration happen under one
+  // lock, so no change is trimmed or published in between. A subscriber that falls more than
+  // subscriber-buffer changes behind is failed and has to resume with its last event id.
+  public Multi<SequencedChange> subscribe(String lastEventId) {
+    var subscriber = new Subscriber(retained + subscriberBuffer);
+    lock.lock();
+    try {
+      long after = lastSequence;
+      if (lastEventId != null) {
+        after = toSequence(lastEventId);
+        if (after < 0 || !retainsChangesAfter(after)) {
+          return null;
+        }
+      }
+      for (var change : history) {
+        if (change.sequence() > after) {
+          subscriber.offer(change);
+        }
+      }
+      subscribers.add(subscriber);
+    } finally {
+      lock.unlock();
+    }
+
+    return Multi.createFrom()
+        .emitter(
+            emitter -> {
+              emitter.onTermination(() -> unsubscribe(subscriber));
+              subscriber.attach(emitter);
+            },
+            retained + subscriberBuffer);
+  }
+
+  // sequence of an event id of this run, -1 for an id of an earlier run
+  private long toSequence(String eventId) {
+    int separator = eventId.lastIndexOf(':');
+    if (separator < 0) {
+      throw new IllegalArgumentException("Event id must be <run>:<sequence>");
+    }
+    long sequence;
+    try {
+      sequence = Long.parseLong(eventId.substring(separator + 1));
+    } catch (NumberFormatException ex) {
+      throw new IllegalArgumentException("Event id must be <run>:<sequence>");
+    }
+    if (sequence < 0) {
+      throw new IllegalArgumentException("Event id must be <run>:<sequence>");
+    }
+    return run.equals(eventId.substring(0, separator)) ? sequence : -1;
+  }
+
+  // guarded by lock
+  private boolean retainsChangesAfter(long sequence) {
+    if (sequence > lastSequence) {
+      return false;
+    }
+    return history.isEmpty() || history.peekFirst().sequence() <= sequence + 1;
+  }
+
+  private void unsubscribe(Subscriber subscriber) {
+    lock.lock();
+    try {
+      subscribers.remove(subscriber);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public static final class SequencedChange {
+    private final String run;
+    private final long sequence;
+    private final WarehouseChange change;
+
+    SequencedChange(String run, long sequence, WarehouseChange change) {
+      this.run = run;
+      this.sequence = sequence;
+      this.change = change;
+    }
+
+    public long sequence() {
+      return sequence;
+    }
+
+    // the SSE event id, what a client passes back to resume
+    public String eventId() {
+      return run + ":" + sequence;
+    }
+
+    public WarehouseChange change() {
+      return change;
+    }
+  }
+
+  // Hands the changes queued for one subscriber to its emitter. Changes are queued under the feed
+  // lock and emitted outside it, by one thread at a time, in the order they were queued; until
+  // the stream is subscribed they wait in the queue.
+  private static final class Subscriber {
+    private final int capacity;
+    private final Queue<SequencedChange> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger drains = new AtomicInteger();
+    private volatile MultiEmitter<? super SequencedChange> emitter;
+    private volatile boolean overflowed;
+
+    private Subscriber(int capacity) {
+      this.capacity = capacity;
+    }
+
+    private boolean offer(SequencedChange change) {
+      if (queued.incrementAndGet() > capacity) {
+        overflowed = true;
+        return false;
+      }
+      pending.add(change);
+      return true;
+    }
+
+    private void attach(MultiEmitter<? super SequencedChange> emitter) {
+      this.emitter = emitter;
+      drain();
+    }
+
+    private void drain() {
+      if (drains.getAndIncrement() != 0) {
+        return;
+      }
+      do {
+        var target = emitter;
+        if (target != null) {
+          SequencedChange change;
+          while ((change = pending.poll()) != null) {
+            queued.decrementAndGet();
+            target.emit(change);
+          }
+          if (overflowed) {
+            target.fail(
+                new IllegalStateException(
+                    "Subscriber fell more than " + capacity + " changes behind"));
+          }
+        }
+      } while (drains.decrementAndGet() != 0);
+    }
+  }
+}
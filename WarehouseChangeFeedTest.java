@@ -0,0 +1,81 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class WarehouseChangeFeedTest {
+
+  private WarehouseChangeFeed feed;
+
+  @BeforeEach
+  void setUp() {
+    feed = new WarehouseChangeFeed(null, 2, 10, "run-2");
+  }
+
+  @Test
+  void shouldReplayRetainedChangesAndThenStreamLiveOnes() {
+    feed.onWarehouseChanged(change("MWH.001", WarehouseChange.Action.CREATED));
+    feed.onWarehouseChanged(change("MWH.001", WarehouseChange.Action.REPLACED));
+
+    AssertSubscriber<WarehouseChangeFeed.SequencedChange> subscriber =
+        feed.subscribe("run-2:1").subscribe().withSubscriber(AssertSubscriber.create(10));
+    feed.onWarehouseChanged(change("MWH.001", WarehouseChange.Action.ARCHIVED));
+
+    var received = subscriber.getItems();
+    assertEquals(2, received.size());
+    assertEquals("run-2:2", received.get(0).eventId());
+    assertEquals(WarehouseChange.Action.REPLACED, received.get(0).change().action());
+    assertEquals("run-2:3", received.get(1).eventId());
+    assertEquals(WarehouseChange.Action.ARCHIVED, received.get(1).change().action());
+  }
+
+  @Test
+  void shouldKeepChangesPublishedBeforeTheStreamIsSubscribed() {
+    var changes = feed.subscribe(null);
+    feed.onWarehouseChanged(change("MWH.001", WarehouseChange.Action.CREATED));
+
+    AssertSubscriber<WarehouseChangeFeed.SequencedChange> subscriber =
+        changes.subscribe().withSubscriber(AssertSubscriber.create(10));
+
+    assertEquals(1, subscriber.getItems().size());
+    assertEquals(1, subscriber.getItems().get(0).sequence());
+  }
+
+  @Test
+  void shouldRefuseToResumeFromChangesNoLongerRetained() {
+    feed.onWarehouseChanged(change("MWH.001", WarehouseChange.Action.CREATED));
+    feed.onWarehouseChanged(change("MWH.012", WarehouseChange.Action.CREATED));
+    feed.onWarehouseChanged(change("MWH.023", WarehouseChange.Action.CREATED));
+
+    assertNotNull(feed.subscribe("run-2:1"));
+    assertNotNull(feed.subscribe("run-2:3"));
+    assertNull(feed.subscribe("run-2:0"));
+    assertNull(feed.subscribe("run-2:4"));
+  }
+
+  @Test
+  void shouldRefuseToResumeFromAnEarlierRunOnceTheSequencePassedIt() {
+    feed.onWarehouseChanged(change("MWH.001", WarehouseChange.Action.CREATED));
+    feed.onWarehouseChanged(change("MWH.012", WarehouseChange.Action.CREATED));
+
+    assertNull(feed.subscribe("run-1:2"));
+    assertThrows(IllegalArgumentException.class, () -> feed.subscribe("2"));
+  }
+
+  private static WarehouseChange change(String buCode, WarehouseChange.Action action) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = buCode;
+    warehouse.location = "ZWOLLE-001";
+    warehouse.capacity = 10;
+    warehouse.stock = 0;
+    return WarehouseChange.create(warehouse, action);
+  }
+}
@@ -0,0 +1,8 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
+
+public interface WarehouseChangePublisher {
+  // announces a change made in the current transaction; subscribers only see it once committed
+  void publish(WarehouseChange change);
+}
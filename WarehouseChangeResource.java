@@ -0,0 +1,62 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import static com.fulfilment.application.monolith.warehouses.adapters.restapi.WarehouseMapper.toWarehouseResponse;
+
+import io.smallrye.mutiny.Multi;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+
+@Path("warehouse/changes")
+@ApplicationScoped
+public class WarehouseChangeResource {
+
+  @Inject WarehouseChangeFeed warehouseChangeFeed;
+
+  // each event carries its id, so browsers resume through Last-Event-ID on their own; other
+  // clients can pass the id of the last event they processed as ?after=. Without either the stream
+  // starts with the next change.
+  @GET
+  @Produces(MediaType.SERVER_SENT_EVENTS)
+  public Multi<OutboundSseEvent> streamChanges(
+      @QueryParam("after") String after,
+      @HeaderParam("Last-Event-ID") String lastEventId,
+      @Context Sse sse) {
+    String resumeAfter = after != null ? after : lastEventId;
+    if (resumeAfter != null) {
+      resumeAfter = resumeAfter.strip();
+    }
+
+    Multi<WarehouseChangeFeed.SequencedChange> changes;
+    try {
+      changes = warehouseChangeFeed.subscribe(resumeAfter);
+    } catch (IllegalArgumentException ex) {
+      throw new WebApplicationException(ex.getMessage(), 400);
+    }
+    if (changes == null) {
+      throw new WebApplicationException(
+          "Changes after event "
+              + resumeAfter
+              + " are no longer retained, reload with GET /warehouse",
+          410);
+    }
+
+    return changes.map(
+        sequenced ->
+            sse.newEventBuilder()
+                .id(sequenced.eventId())
+                .name(sequenced.change().action().name())
+                .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                .data(toWarehouseResponse(sequenced.change().warehouse()))
+                .build());
+  }
+}
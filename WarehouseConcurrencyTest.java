@@ -0,0 +1,74 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class WarehouseConcurrencyTest {
+
+  private static final String PATH = "warehouse";
+
+  @Test
+  public void testParallelCreatesShouldRespectLocationLimits() throws Exception {
+    // EINDHOVEN-001 allows 2 warehouses and 70 capacity; HELMOND-001 allows 1 warehouse
+    List<Callable<Integer>> requests = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      requests.add(createRequest("MWH.E" + i, "EINDHOVEN-001", 30));
+      requests.add(createRequest("MWH.H" + i, "HELMOND-001", 10));
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(requests.size());
+    int eindhovenCreated = 0;
+    int helmondCreated = 0;
+    try {
+      List<Future<Integer>> results = executor.invokeAll(requests);
+      for (int i = 0; i < results.size(); i++) {
+        if (results.get(i).get() == 200) {
+          if (i % 2 == 0) {
+            eindhovenCreated++;
+          } else {
+            helmondCreated++;
+          }
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(2, eindhovenCreated);
+    assertEquals(1, helmondCreated);
+  }
+
+  private static Callable<Integer> createRequest(String businessUnitCode, String location, int capacity) {
+    String payload =
+        """
+        {
+          "businessUnitCode": "%s",
+          "location": "%s",
+          "capacity": %d,
+          "stock": 0
+        }
+        """
+            .formatted(businessUnitCode, location, capacity);
+
+    return () ->
+        given()
+            .contentType(ContentType.JSON)
+            .body(payload)
+            .when()
+            .post(PATH)
+            .then()
+            .extract()
+            .statusCode();
+  }
+}
@@ -0,0 +1,9 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+// raised by WarehouseStore when a warehouse was changed by someone else since it was read
+public class WarehouseConflictException extends RuntimeException {
+
+  public WarehouseConflictException(String businessUnitCode) {
+    super("Warehouse with businessUnitCode " + businessUnitCode + " was modified concurrently");
+  }
+}
@@ -0,0 +1,52 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseConflictException;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseTransactions;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Re-runs an optimistic warehouse write when the store reports a concurrent modification. Each
+// attempt runs in a transaction of its own and must re-read what it writes; retries back off
+// exponentially with random jitter after the failed attempt rolled back, so the locks it took are
+// not held while sleeping.
+@ApplicationScoped
+public class WarehouseConflictRetry {
+
+  static final int MAX_ATTEMPTS = 4;
+  private static final long BASE_BACKOFF_MILLIS = 5;
+
+  private final MeterRegistry meterRegistry;
+  private final WarehouseTransactions transactions;
+
+  public WarehouseConflictRetry(MeterRegistry meterRegistry, WarehouseTransactions transactions) {
+    this.meterRegistry = meterRegistry;
+    this.transactions = transactions;
+  }
+
+  public void run(String operation, Runnable attempt) {
+    for (int attemptNumber = 1; ; attemptNumber++) {
+      try {
+        transactions.inNewTransaction(attempt);
+        return;
+      } catch (WarehouseConflictException ex) {
+        meterRegistry.counter("warehouse.conflicts", "operation", operation).increment();
+        if (attemptNumber >= MAX_ATTEMPTS) {
+          throw ex;
+        }
+        meterRegistry.counter("warehouse.conflict.retries", "operation", operation).increment();
+        backoff(attemptNumber);
+      }
+    }
+  }
+
+  private static void backoff(int attemptNumber) {
+    long maxDelay = BASE_BACKOFF_MILLIS << attemptNumber;
+    try {
+      Thread.sleep(ThreadLocalRandom.current().nextLong(maxDelay / 2, maxDelay + 1));
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while retrying warehouse write", ex);
+    }
+  }
+}
@@ -6,15 +6,24 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.fulfilment.application.monolith.location.LocationGateway;
 import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseChangePublisher;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.ArchiveWarehouseUseCase;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.CreateWarehouseUseCase;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.ReplaceWarehouseUseCase;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.WarehouseConflictRetry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.ws.rs.WebApplicationException;
 import java.lang.reflect.Field;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -28,9 +37,12 @@ public class WarehouseEndpointTest {
     repository = new InMemoryWarehouseRepository();
     resource = new WarehouseResourceImpl();
 
-    var createUseCase = new CreateWarehouseUseCase(repository, new LocationGateway());
-    var replaceUseCase = new ReplaceWarehouseUseCase(repository, new LocationGateway());
-    var archiveUseCase = new ArchiveWarehouseUseCase(repository);
+    WarehouseChangePublisher changePublisher = change -> {};
+    var createUseCase = new CreateWarehouseUseCase(repository, new LocationGateway(), changePublisher);
+    var conflictRetry = new WarehouseConflictRetry(new SimpleMeterRegistry(), Runnable::run);
+    var replaceUseCase =
+        new ReplaceWarehouseUseCase(repository, new LocationGateway(), conflictRetry, changePublisher);
+    var archiveUseCase = new ArchiveWarehouseUseCase(repository, conflictRetry, changePublisher);
 
     setField(resource, "warehouseRepository", repository);
     setField(resource, "createWarehouseUseCase", createUseCase);
@@ -44,10 +56,42 @@ public class WarehouseEndpointTest {
 
   @Test
   void testListWarehouses() {
-    var response = resource.listAllWarehousesUnits();
+    var response = resource.listAllWarehousesUnits(null, null, null, null);
     assertEquals(3, response.size());
   }
 
+  @Test
+  void testListWarehousesShouldPageWithCursor() {
+    var firstPage = resource.listAllWarehousesUnits(null, null, null, 2);
+    assertEquals(2, firstPage.size());
+    assertEquals("MWH.001", firstPage.get(0).getBusinessUnitCode());
+
+    var cursor = Long.valueOf(firstPage.get(1).getId());
+    var secondPage = resource.listAllWarehousesUnits(null, null, cursor, 2);
+    assertEquals(1, secondPage.size());
+    assertEquals("MWH.023", secondPage.get(0).getBusinessUnitCode());
+  }
+
+  @Test
+  void testListWarehousesShouldFilterByLocationAndArchivedState() {
+    resource.archiveAWarehouseUnitByID("MWH.023");
+
+    assertEquals(1, resource.listAllWarehousesUnits("ZWOLLE-001", null, null, null).size());
+    assertEquals(2, resource.listAllWarehousesUnits(null, false, null, null).size());
+
+    var archived = resource.listAllWarehousesUnits(null, true, null, null);
+    assertEquals(1, archived.size());
+    assertEquals("MWH.023", archived.get(0).getBusinessUnitCode());
+  }
+
+  @Test
+  void testListWarehousesShouldRejectInvalidLimit() {
+    WebApplicationException exception =
+        assertThrows(
+            WebApplicationException.class, () -> resource.listAllWarehousesUnits(null, null, null, 0));
+    assertEquals(400, exception.getResponse().getStatus());
+  }
+
   @Test
   void testGetWarehouseByBusinessUnitCode() {
     var response = resource.getAWarehouseUnitByID("MWH.001");
@@ -95,6 +139,22 @@ public class WarehouseEndpointTest {
     assertEquals(400, exception.getResponse().getStatus());
   }
 
+  @Test
+  void testReplaceWarehouseShouldKeepPreviousVersionInHistory() {
+    var payload = new com.warehouse.api.beans.Warehouse();
+    payload.setLocation("ZWOLLE-001");
+    payload.setCapacity(15);
+    payload.setStock(10);
+
+    resource.replaceTheCurrentActiveWarehouse("MWH.001", payload);
+
+    var history = resource.getWarehouseUnitHistory("MWH.001");
+    assertEquals(1, history.size());
+    assertEquals(100, history.get(0).getCapacity());
+    assertNotNull(history.get(0).getArchivedAt());
+    assertEquals(15, resource.getAWarehouseUnitByID("MWH.001").getCapacity());
+  }
+
   @Test
   void testArchiveWarehouseShouldHideFromActiveLookup() {
     resource.archiveAWarehouseUnitByID("MWH.023");
@@ -123,6 +183,7 @@ public class WarehouseEndpointTest {
   private static class InMemoryWarehouseRepository extends WarehouseRepository {
 
     private final List<Warehouse> warehouses = new ArrayList<>();
+    private long nextId = 1;
 
     @Override
     public List<Warehouse> getAll() {
@@ -131,6 +192,7 @@ public class WarehouseEndpointTest {
 
     @Override
     public void create(Warehouse warehouse) {
+      warehouse.id = nextId++;
       warehouses.add(copy(warehouse));
     }
 
@@ -161,8 +223,84 @@ public class WarehouseEndpointTest {
           .orElse(null);
     }
 
+    @Override
+    public Set<String> findActiveBusinessUnitCodes(Collection<String> buCodes) {
+      return warehouses.stream()
+          .filter(current -> current.archivedAt == null)
+          .map(current -> current.businessUnitCode)
+          .filter(buCodes::contains)
+          .collect(Collectors.toSet());
+    }
+
+    @Override
+    public List<Warehouse> findPage(String location, boolean archived, Long afterId, int limit) {
+      return warehouses.stream()
+          .filter(current -> (current.archivedAt != null) == archived)
+          .filter(current -> location == null || current.location.equals(location))
+          .filter(current -> afterId == null || current.id > afterId)
+          .sorted(Comparator.comparing((Warehouse current) -> current.id))
+          .limit(limit)
+          .toList();
+    }
+
+    @Override
+    public List<Warehouse> findHistoryByBusinessUnitCode(String buCode) {
+      return warehouses.stream()
+          .filter(current -> current.archivedAt != null)
+          .filter(current -> current.businessUnitCode.equals(buCode))
+          .sorted(Comparator.comparing((Warehouse current) -> current.archivedAt).reversed())
+          .toList();
+    }
+
+    @Override
+    public LocationOccupancy getLocationOccupancy(String location, String excludedBusinessUnitCode) {
+      List<Warehouse> active =
+          warehouses.stream()
+              .filter(current -> current.archivedAt == null)
+              .filter(current -> current.location.equals(location))
+              .filter(current -> !current.businessUnitCode.equals(excludedBusinessUnitCode))
+              .toList();
+      return new LocationOccupancy(
+          active.size(), active.stream().mapToLong(current -> current.capacity).sum());
+    }
+
+    @Override
+    public Map<String, LocationOccupancy> getOccupancyByLocation() {
+      return warehouses.stream()
+          .filter(current -> current.archivedAt == null)
+          .collect(
+              Collectors.groupingBy(
+                  current -> current.location,
+                  Collectors.collectingAndThen(
+                      Collectors.toList(),
+                      active ->
+                          new LocationOccupancy(
+                              active.size(),
+                              active.stream().mapToLong(current -> current.capacity).sum(),
+                              active.stream().mapToLong(current -> current.stock).sum()))));
+    }
+
+    @Override
+    public void lockLocation(String location) {}
+
+    @Override
+    public Integer adjustStock(String buCode, int delta) {
+      for (Warehouse current : warehouses) {
+        if (current.archivedAt == null && current.businessUnitCode.equals(buCode)) {
+          int stock = current.stock + delta;
+          if (stock < 0 || stock > current.capacity) {
+            return null;
+          }
+          current.stock = stock;
+          return stock;
+        }
+      }
+      return null;
+    }
+
     private static Warehouse copy(Warehouse source) {
       Warehouse copy = new Warehouse();
+      copy.id = source.id;
       copy.businessUnitCode = source.businessUnitCode;
       copy.location = source.location;
       copy.capacity = source.capacity;
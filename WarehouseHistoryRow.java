@@ -0,0 +1,38 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.time.LocalDateTime;
+
+// an archived warehouse version as selected by the read queries, built by their constructor
+// expression
+public class WarehouseHistoryRow {
+
+  static final String SELECT =
+      "select new "
+          + WarehouseHistoryRow.class.getName()
+          + "(w.id, w.businessUnitCode, w.location, w.capacity, w.stock, w.createdAt,"
+          + " w.archivedAt)";
+
+  private final Warehouse warehouse = new Warehouse();
+
+  public WarehouseHistoryRow(
+      Long id,
+      String businessUnitCode,
+      String location,
+      Integer capacity,
+      Integer stock,
+      LocalDateTime createdAt,
+      LocalDateTime archivedAt) {
+    warehouse.id = id;
+    warehouse.businessUnitCode = businessUnitCode;
+    warehouse.location = location;
+    warehouse.capacity = capacity;
+    warehouse.stock = stock;
+    warehouse.createdAt = createdAt;
+    warehouse.archivedAt = archivedAt;
+  }
+
+  public Warehouse toWarehouse() {
+    return warehouse;
+  }
+}
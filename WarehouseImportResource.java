@@ -0,0 +1,81 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseImportResult;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.ImportWarehousesUseCase;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+@Path("warehouse/import")
+@ApplicationScoped
+@Produces("application/json")
+@Consumes("application/x-ndjson")
+public class WarehouseImportResource {
+
+  // lines validated and written per transaction
+  static final int BATCH_SIZE = 500;
+
+  @Inject ImportWarehousesUseCase importWarehousesUseCase;
+  @Inject ObjectMapper objectMapper;
+
+  @POST
+  public List<WarehouseImportResult> importWarehouses(InputStream body) throws IOException {
+    var results = new ArrayList<WarehouseImportResult>();
+    var batch = new TreeMap<Integer, Warehouse>();
+
+    try (var reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+      int lineNumber = 0;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.isBlank()) {
+          continue;
+        }
+
+        try {
+          var data = objectMapper.readValue(line, com.warehouse.api.beans.Warehouse.class);
+          if (data == null) {
+            results.add(WarehouseImportResult.rejected(lineNumber, null, "Malformed warehouse line"));
+          } else {
+            batch.put(lineNumber, WarehouseMapper.toWarehouseDomain(data));
+          }
+        } catch (JsonProcessingException ex) {
+          results.add(WarehouseImportResult.rejected(lineNumber, null, "Malformed warehouse line"));
+        }
+
+        if (batch.size() == BATCH_SIZE) {
+          results.addAll(importBatch(batch));
+          batch = new TreeMap<>();
+        }
+      }
+    }
+
+    if (!batch.isEmpty()) {
+      results.addAll(importBatch(batch));
+    }
+
+    results.sort(Comparator.comparingInt(result -> result.line));
+    return results;
+  }
+
+  private List<WarehouseImportResult> importBatch(SortedMap<Integer, Warehouse> batch) {
+    return QuarkusTransaction.requiringNew().call(() -> importWarehousesUseCase.importBatch(batch));
+  }
+}
@@ -0,0 +1,31 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+public class WarehouseImportResult {
+
+  // line of the import payload this result refers to (1-based)
+  public int line;
+
+  public String businessUnitCode;
+
+  public boolean created;
+
+  // reason the line was rejected, null when the warehouse was created
+  public String error;
+
+  public static WarehouseImportResult created(int line, String businessUnitCode) {
+    var result = new WarehouseImportResult();
+    result.line = line;
+    result.businessUnitCode = businessUnitCode;
+    result.created = true;
+    return result;
+  }
+
+  public static WarehouseImportResult rejected(int line, String businessUnitCode, String error) {
+    var result = new WarehouseImportResult();
+    result.line = line;
+    result.businessUnitCode = businessUnitCode;
+    result.created = false;
+    result.error = error;
+    return result;
+  }
+}
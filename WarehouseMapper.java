@@ -0,0 +1,39 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.warehouse.api.beans.Warehouse;
+
+// maps requests and responses of the warehouse API, shared by the warehouse resources
+final class WarehouseMapper {
+
+  private WarehouseMapper() {}
+
+  static Warehouse toWarehouseResponse(
+      com.fulfilment.application.monolith.warehouses.domain.models.Warehouse warehouse) {
+    var response = new Warehouse();
+    if (warehouse.id != null) {
+      response.setId(warehouse.id.toString());
+    }
+    response.setBusinessUnitCode(warehouse.businessUnitCode);
+    response.setLocation(warehouse.location);
+    response.setCapacity(warehouse.capacity);
+    response.setStock(warehouse.stock);
+    if (warehouse.createdAt != null) {
+      response.setCreatedAt(warehouse.createdAt.toString());
+    }
+    if (warehouse.archivedAt != null) {
+      response.setArchivedAt(warehouse.archivedAt.toString());
+    }
+
+    return response;
+  }
+
+  static com.fulfilment.application.monolith.warehouses.domain.models.Warehouse toWarehouseDomain(
+      Warehouse data) {
+    var warehouse = new com.fulfilment.application.monolith.warehouses.domain.models.Warehouse();
+    warehouse.businessUnitCode = data.getBusinessUnitCode();
+    warehouse.location = data.getLocation();
+    warehouse.capacity = data.getCapacity();
+    warehouse.stock = data.getStock();
+    return warehouse;
+  }
+}
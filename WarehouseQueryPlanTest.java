@@ -0,0 +1,64 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import io.quarkus.test.TestTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+@TestTransaction
+public class WarehouseQueryPlanTest {
+
+  @Inject EntityManager entityManager;
+
+  @BeforeEach
+  void seedWarehouses() {
+    // 50k active units and 50k archived versions over 500 locations, rolled back after each test
+    entityManager
+        .createNativeQuery(
+            "insert into warehouse(id, businessUnitCode, location, capacity, stock, createdAt)"
+                + " select -i, 'MWH.P' || i, 'PLAN-' || (i % 500), 10, 0, now()"
+                + " from generate_series(1, 50000) i")
+        .executeUpdate();
+    entityManager
+        .createNativeQuery(
+            "insert into warehouse_history(id, businessUnitCode, location, capacity, stock, createdAt,"
+                + " archivedAt)"
+                + " select -i, 'MWH.P' || (i % 5000), 'PLAN-' || (i % 500), 10, 0, now(), now()"
+                + " from generate_series(1, 50000) i")
+        .executeUpdate();
+    entityManager.createNativeQuery("analyze warehouse").executeUpdate();
+    entityManager.createNativeQuery("analyze warehouse_history").executeUpdate();
+  }
+
+  @Test
+  public void testActiveLookupByBusinessUnitCodeShouldUseIndex() {
+    assertNoSequentialScan(
+        "select * from warehouse where businessUnitCode = 'MWH.P42'");
+  }
+
+  @Test
+  public void testLocationOccupancyShouldUseIndex() {
+    assertNoSequentialScan(
+        "select count(*), coalesce(sum(capacity), 0) from warehouse"
+            + " where location = 'PLAN-42'");
+  }
+
+  @Test
+  public void testHistoryByBusinessUnitCodeShouldUseIndex() {
+    assertNoSequentialScan(
+        "select * from warehouse_history where businessUnitCode = 'MWH.P42' order by archivedAt desc");
+  }
+
+  private void assertNoSequentialScan(String query) {
+    @SuppressWarnings("unchecked")
+    List<String> plan = entityManager.createNativeQuery("explain " + query).getResultList();
+    String planText = String.join("\n", plan);
+    assertFalse(planText.contains("Seq Scan"), () -> "Sequential scan in plan:\n" + planText);
+  }
+}
@@ -1,17 +1,44 @@
 package com.fulfilment.application.monolith.warehouses.adapters.database;
 
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseConflictException;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Parameters;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 @ApplicationScoped
 public class WarehouseRepository implements WarehouseStore, PanacheRepository<DbWarehouse> {
 
+  @Inject WarehouseCache warehouseCache;
+  @Inject LocationCapacityIndex locationCapacityIndex;
+
+  // Reads select the warehouse columns into WarehouseRow or WarehouseHistoryRow through a
+  // constructor expression, so no entity is hydrated, snapshotted for dirty checking or kept in
+  // the persistence context.
   @Override
   public List<Warehouse> getAll() {
-    return this.listAll().stream().map(DbWarehouse::toWarehouse).toList();
+    var warehouses = new ArrayList<Warehouse>();
+    getEntityManager()
+        .createQuery(WarehouseRow.SELECT + " from DbWarehouse w", WarehouseRow.class)
+        .getResultList()
+        .forEach(row -> warehouses.add(row.toWarehouse()));
+    getEntityManager()
+        .createQuery(
+            WarehouseHistoryRow.SELECT + " from DbWarehouseHistory w", WarehouseHistoryRow.class)
+        .getResultList()
+        .forEach(row -> warehouses.add(row.toWarehouse()));
+    return warehouses;
   }
 
   @Override
@@ -22,37 +49,237 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
     dbWarehouse.capacity = warehouse.capacity;
     dbWarehouse.stock = warehouse.stock;
     dbWarehouse.createdAt = warehouse.createdAt;
-    dbWarehouse.archivedAt = warehouse.archivedAt;
     persist(dbWarehouse);
+    warehouse.id = dbWarehouse.id;
+    warehouse.version = dbWarehouse.version;
+    warehouseCache.invalidate(warehouse.businessUnitCode);
+    locationCapacityIndex.recordCreated(warehouse);
   }
 
   @Override
   public void update(Warehouse warehouse) {
-    DbWarehouse dbWarehouse =
-        find("businessUnitCode = ?1 and archivedAt is null", warehouse.businessUnitCode).firstResult();
-    if (dbWarehouse == null) {
+    warehouseCache.invalidate(warehouse.businessUnitCode);
+    if (warehouse.archivedAt != null) {
+      archive(warehouse);
       return;
     }
 
-    dbWarehouse.location = warehouse.location;
-    dbWarehouse.capacity = warehouse.capacity;
-    dbWarehouse.stock = warehouse.stock;
-    dbWarehouse.createdAt = warehouse.createdAt;
-    dbWarehouse.archivedAt = warehouse.archivedAt;
+    var parameters =
+        Parameters.with("buCode", warehouse.businessUnitCode)
+            .and("location", warehouse.location)
+            .and("capacity", warehouse.capacity)
+            .and("stock", warehouse.stock)
+            .and("createdAt", warehouse.createdAt);
+    int updated =
+        update(
+            "location = :location, capacity = :capacity, stock = :stock, createdAt = :createdAt,"
+                + " version = version + 1 where businessUnitCode = :buCode"
+                + versionCondition(warehouse, parameters),
+            parameters);
+    checkNotConflicting(warehouse, updated);
+    if (updated > 0) {
+      locationCapacityIndex.invalidateAll();
+    }
   }
 
   @Override
   public void remove(Warehouse warehouse) {
-    delete("businessUnitCode = ?1 and archivedAt is null", warehouse.businessUnitCode);
+    warehouseCache.invalidate(warehouse.businessUnitCode);
+    if (delete("businessUnitCode", warehouse.businessUnitCode) > 0) {
+      locationCapacityIndex.recordArchived(warehouse);
+    }
   }
 
   @Override
   public Warehouse findByBusinessUnitCode(String buCode) {
-    DbWarehouse dbWarehouse = find("businessUnitCode = ?1 and archivedAt is null", buCode).firstResult();
-    if (dbWarehouse == null) {
-      return null;
+    return warehouseCache.get(buCode, this::loadByBusinessUnitCode);
+  }
+
+  private Warehouse loadByBusinessUnitCode(String buCode) {
+    // a projection rather than an entity: writes are bulk statements, a managed entity would serve
+    // a stale version to a later read in the same transaction
+    var rows =
+        getEntityManager()
+            .createQuery(
+                WarehouseRow.SELECT + " from DbWarehouse w where w.businessUnitCode = :buCode",
+                WarehouseRow.class)
+            .setParameter("buCode", buCode)
+            .setMaxResults(1)
+            .getResultList();
+    return rows.isEmpty() ? null : rows.get(0).toWarehouse();
+  }
+
+  @Override
+  public Set<String> findActiveBusinessUnitCodes(Collection<String> buCodes) {
+    if (buCodes.isEmpty()) {
+      return Set.of();
     }
 
-    return dbWarehouse.toWarehouse();
+    return new HashSet<>(
+        getEntityManager()
+            .createQuery(
+                "select w.businessUnitCode from DbWarehouse w where w.businessUnitCode in :buCodes",
+                String.class)
+            .setParameter("buCodes", buCodes)
+            .getResultList());
+  }
+
+  @Override
+  public List<Warehouse> findPage(String location, boolean archived, Long afterId, int limit) {
+    var conditions = new ArrayList<String>();
+    var parameters = new Parameters();
+    if (location != null) {
+      conditions.add("w.location = :location");
+      parameters.and("location", location);
+    }
+    if (afterId != null) {
+      conditions.add("w.id > :afterId");
+      parameters.and("afterId", afterId);
+    }
+
+    String where = conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+    if (archived) {
+      return findPage(
+          WarehouseHistoryRow.SELECT + " from DbWarehouseHistory w" + where + " order by w.id",
+          WarehouseHistoryRow.class,
+          WarehouseHistoryRow::toWarehouse,
+          parameters,
+          limit);
+    }
+    return findPage(
+        WarehouseRow.SELECT + " from DbWarehouse w" + where + " order by w.id",
+        WarehouseRow.class,
+        WarehouseRow::toWarehouse,
+        parameters,
+        limit);
+  }
+
+  private <R> List<Warehouse> findPage(
+      String query,
+      Class<R> rowType,
+      Function<R, Warehouse> toWarehouse,
+      Parameters parameters,
+      int limit) {
+    var typedQuery = getEntityManager().createQuery(query, rowType).setMaxResults(limit);
+    parameters.map().forEach(typedQuery::setParameter);
+    return typedQuery.getResultList().stream().map(toWarehouse).toList();
+  }
+
+  @Override
+  public List<Warehouse> findHistoryByBusinessUnitCode(String buCode) {
+    return getEntityManager()
+        .createQuery(
+            WarehouseHistoryRow.SELECT
+                + " from DbWarehouseHistory w where w.businessUnitCode = :buCode"
+                + " order by w.archivedAt desc",
+            WarehouseHistoryRow.class)
+        .setParameter("buCode", buCode)
+        .getResultList()
+        .stream()
+        .map(WarehouseHistoryRow::toWarehouse)
+        .toList();
+  }
+
+  @Override
+  public LocationOccupancy getLocationOccupancy(String location, String excludedBusinessUnitCode) {
+    String query =
+        "select count(w), coalesce(sum(w.capacity), 0), coalesce(sum(w.stock), 0)"
+            + " from DbWarehouse w where w.location = :location";
+    if (excludedBusinessUnitCode != null) {
+      query += " and w.businessUnitCode <> :excluded";
+    }
+
+    var typedQuery =
+        getEntityManager()
+            .createQuery(query, Object[].class)
+            .setParameter("location", location);
+    if (excludedBusinessUnitCode != null) {
+      typedQuery.setParameter("excluded", excludedBusinessUnitCode);
+    }
+
+    return toOccupancy(typedQuery.getSingleResult(), 0);
+  }
+
+  @Override
+  public Map<String, LocationOccupancy> getOccupancyByLocation() {
+    // one grouped pass over the active warehouses instead of a query per location
+    var occupancies = new HashMap<String, LocationOccupancy>();
+    getEntityManager()
+        .createQuery(
+            "select w.location, count(w), coalesce(sum(w.capacity), 0), coalesce(sum(w.stock), 0)"
+                + " from DbWarehouse w group by w.location",
+            Object[].class)
+        .getResultList()
+        .forEach(row -> occupancies.put((String) row[0], toOccupancy(row, 1)));
+    return occupancies;
+  }
+
+  @Override
+  public void lockLocation(String location) {
+    // transaction scoped advisory lock, released by postgres on commit or rollback
+    getEntityManager()
+        .createNativeQuery("select 1 from pg_advisory_xact_lock(hashtext(:location))")
+        .setParameter("location", location)
+        .getSingleResult();
+  }
+
+  @Override
+  public Integer adjustStock(String buCode, int delta) {
+    warehouseCache.invalidate(buCode);
+    // single conditional statement, the row lock it takes serializes concurrent movements; the
+    // condition adds in bigint so a delta near the int range is rejected instead of overflowing
+    List<?> stock =
+        getEntityManager()
+            .createNativeQuery(
+                "update warehouse set stock = stock + :delta, version = version + 1"
+                    + " where businessUnitCode = :buCode"
+                    + " and cast(stock as bigint) + :delta between 0 and capacity"
+                    + " returning stock")
+            .setParameter("delta", delta)
+            .setParameter("buCode", buCode)
+            .getResultList();
+    return stock.isEmpty() ? null : ((Number) stock.get(0)).intValue();
+  }
+
+  private void archive(Warehouse warehouse) {
+    var parameters = Parameters.with("buCode", warehouse.businessUnitCode);
+    long deleted =
+        delete("businessUnitCode = :buCode" + versionCondition(warehouse, parameters), parameters);
+    checkNotConflicting(warehouse, deleted);
+    if (deleted == 0) {
+      return;
+    }
+
+    var history = new DbWarehouseHistory();
+    history.businessUnitCode = warehouse.businessUnitCode;
+    history.location = warehouse.location;
+    history.capacity = warehouse.capacity;
+    history.stock = warehouse.stock;
+    history.createdAt = warehouse.createdAt;
+    history.archivedAt = warehouse.archivedAt;
+    getEntityManager().persist(history);
+    locationCapacityIndex.recordArchived(warehouse);
+  }
+
+  // writes are conditional on the version the caller read, unversioned callers write blindly
+  private static String versionCondition(Warehouse warehouse, Parameters parameters) {
+    if (warehouse.version == null) {
+      return "";
+    }
+    parameters.and("version", warehouse.version);
+    return " and version = :version";
+  }
+
+  private static void checkNotConflicting(Warehouse warehouse, long affectedRows) {
+    if (affectedRows == 0 && warehouse.version != null) {
+      throw new WarehouseConflictException(warehouse.businessUnitCode);
+    }
+  }
+
+  private static LocationOccupancy toOccupancy(Object[] row, int offset) {
+    return new LocationOccupancy(
+        ((Number) row[offset]).longValue(),
+        ((Number) row[offset + 1]).longValue(),
+        ((Number) row[offset + 2]).longValue());
   }
 }
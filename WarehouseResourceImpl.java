@@ -1,11 +1,18 @@
 package com.fulfilment.application.monolith.warehouses.adapters.restapi;
 
+import static com.fulfilment.application.monolith.paging.PageSize.toPageSize;
+import static com.fulfilment.application.monolith.warehouses.adapters.restapi.WarehouseMapper.toWarehouseDomain;
+import static com.fulfilment.application.monolith.warehouses.adapters.restapi.WarehouseMapper.toWarehouseResponse;
+
 import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseConflictException;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.ArchiveWarehouseUseCase;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.CreateWarehouseUseCase;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.ReplaceWarehouseUseCase;
 import com.warehouse.api.WarehouseResource;
 import com.warehouse.api.beans.Warehouse;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -14,6 +21,8 @@ import jakarta.ws.rs.WebApplicationException;
 import java.util.List;
 
 @RequestScoped
+@RunOnVirtualThread
+@IfBuildProperty(name = "warehouse.store.reactive", stringValue = "false", enableIfMissing = true)
 public class WarehouseResourceImpl implements WarehouseResource {
 
   @Inject private WarehouseRepository warehouseRepository;
@@ -22,8 +31,13 @@ public class WarehouseResourceImpl implements WarehouseResource {
   @Inject private ArchiveWarehouseUseCase archiveWarehouseUseCase;
 
   @Override
-  public List<Warehouse> listAllWarehousesUnits() {
-    return warehouseRepository.getAll().stream().map(this::toWarehouseResponse).toList();
+  public List<Warehouse> listAllWarehousesUnits(
+      String location, Boolean archived, Long after, Integer limit) {
+    return warehouseRepository
+        .findPage(location, Boolean.TRUE.equals(archived), after, toPageSize(limit))
+        .stream()
+        .map(WarehouseMapper::toWarehouseResponse)
+        .toList();
   }
 
   @Override
@@ -49,18 +63,29 @@ public class WarehouseResourceImpl implements WarehouseResource {
   }
 
   @Override
-  @Transactional
+  public List<Warehouse> getWarehouseUnitHistory(String businessUnitCode) {
+    return warehouseRepository.findHistoryByBusinessUnitCode(businessUnitCode).stream()
+        .map(WarehouseMapper::toWarehouseResponse)
+        .toList();
+  }
+
+  // no surrounding transaction: every conflict retry runs in a transaction of its own
+  @Override
   public void archiveAWarehouseUnitByID(String id) {
     var warehouse = warehouseRepository.findByBusinessUnitCode(id);
     if (warehouse == null) {
       throw new WebApplicationException("Warehouse with businessUnitCode " + id + " does not exist.", 404);
     }
 
-    archiveWarehouseUseCase.archive(warehouse);
+    try {
+      archiveWarehouseUseCase.archive(warehouse);
+    } catch (WarehouseConflictException ex) {
+      throw new WebApplicationException(ex.getMessage(), 409);
+    }
   }
 
+  // no surrounding transaction: every conflict retry runs in a transaction of its own
   @Override
-  @Transactional
   public Warehouse replaceTheCurrentActiveWarehouse(
       String businessUnitCode, @NotNull Warehouse data) {
     try {
@@ -72,27 +97,8 @@ public class WarehouseResourceImpl implements WarehouseResource {
       throw new WebApplicationException(ex.getMessage(), 400);
     } catch (IllegalStateException ex) {
       throw new WebApplicationException(ex.getMessage(), 404);
+    } catch (WarehouseConflictException ex) {
+      throw new WebApplicationException(ex.getMessage(), 409);
     }
   }
-
-  private Warehouse toWarehouseResponse(
-      com.fulfilment.application.monolith.warehouses.domain.models.Warehouse warehouse) {
-    var response = new Warehouse();
-    response.setBusinessUnitCode(warehouse.businessUnitCode);
-    response.setLocation(warehouse.location);
-    response.setCapacity(warehouse.capacity);
-    response.setStock(warehouse.stock);
-
-    return response;
-  }
-
-  private com.fulfilment.application.monolith.warehouses.domain.models.Warehouse toWarehouseDomain(
-      Warehouse data) {
-    var warehouse = new com.fulfilment.application.monolith.warehouses.domain.models.Warehouse();
-    warehouse.businessUnitCode = data.getBusinessUnitCode();
-    warehouse.location = data.getLocation();
-    warehouse.capacity = data.getCapacity();
-    warehouse.stock = data.getStock();
-    return warehouse;
-  }
 }
@@ -0,0 +1,36 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.time.LocalDateTime;
+
+// an active warehouse as selected by the read queries, built by their constructor expression
+public class WarehouseRow {
+
+  static final String SELECT =
+      "select new "
+          + WarehouseRow.class.getName()
+          + "(w.id, w.businessUnitCode, w.location, w.capacity, w.stock, w.createdAt, w.version)";
+
+  private final Warehouse warehouse = new Warehouse();
+
+  public WarehouseRow(
+      Long id,
+      String businessUnitCode,
+      String location,
+      Integer capacity,
+      Integer stock,
+      LocalDateTime createdAt,
+      Long version) {
+    warehouse.id = id;
+    warehouse.businessUnitCode = businessUnitCode;
+    warehouse.location = location;
+    warehouse.capacity = capacity;
+    warehouse.stock = stock;
+    warehouse.createdAt = createdAt;
+    warehouse.version = version;
+  }
+
+  public Warehouse toWarehouse() {
+    return warehouse;
+  }
+}
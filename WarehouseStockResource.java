@@ -0,0 +1,35 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.StockMovement;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.AdjustWarehouseStockUseCase;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.WebApplicationException;
+import java.util.List;
+
+@Path("warehouse/stock-movements")
+@ApplicationScoped
+@RunOnVirtualThread
+@Produces("application/json")
+@Consumes("application/json")
+public class WarehouseStockResource {
+
+  @Inject AdjustWarehouseStockUseCase adjustWarehouseStockUseCase;
+
+  // each movement is applied or rejected on its own, the response lists them in request order
+  @POST
+  @Transactional
+  public List<StockMovement> applyMovements(List<StockMovement> movements) {
+    try {
+      return adjustWarehouseStockUseCase.apply(movements);
+    } catch (IllegalArgumentException ex) {
+      throw new WebApplicationException(ex.getMessage(), 400);
+    }
+  }
+}
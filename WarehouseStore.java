@@ -1,7 +1,11 @@
 package com.fulfilment.application.monolith.warehouses.domain.ports;
 
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface WarehouseStore {
 
@@ -14,4 +18,28 @@ public interface WarehouseStore {
   void remove(Warehouse warehouse);
 
   Warehouse findByBusinessUnitCode(String buCode);
+
+  // subset of the given business unit codes that belong to an active warehouse
+  Set<String> findActiveBusinessUnitCodes(Collection<String> buCodes);
+
+  // keyset page ordered by id; location and afterId are optional
+  List<Warehouse> findPage(String location, boolean archived, Long afterId, int limit);
+
+  // archived versions of a business unit, most recently archived first
+  List<Warehouse> findHistoryByBusinessUnitCode(String buCode);
+
+  // active warehouse count and summed capacity for a location, optionally ignoring one business
+  // unit code (the warehouse being replaced); pass null to count every active warehouse
+  LocationOccupancy getLocationOccupancy(String location, String excludedBusinessUnitCode);
+
+  // occupancy of every location holding at least one active warehouse, keyed by location
+  Map<String, LocationOccupancy> getOccupancyByLocation();
+
+  // serializes capacity checks for a location until the surrounding transaction ends; writes to
+  // other locations are not blocked
+  void lockLocation(String location);
+
+  // atomically adds delta to the stock of an active warehouse, returning the new stock, or null
+  // when the warehouse does not exist or the result would fall outside 0..capacity
+  Integer adjustStock(String buCode, int delta);
 }
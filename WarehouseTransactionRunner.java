@@ -0,0 +1,14 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseTransactions;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class WarehouseTransactionRunner implements WarehouseTransactions {
+
+  @Override
+  public void inNewTransaction(Runnable work) {
+    QuarkusTransaction.requiringNew().run(work);
+  }
+}
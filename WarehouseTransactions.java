@@ -0,0 +1,7 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+public interface WarehouseTransactions {
+  // runs work in a transaction of its own, committed when work returns and rolled back when it
+  // throws; the exception is rethrown
+  void inNewTransaction(Runnable work);
+}